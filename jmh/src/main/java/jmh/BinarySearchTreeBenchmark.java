@@ -0,0 +1,80 @@
+package jmh;
+
+import dataStructures.BinarySearchTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of BinarySearchTree insert and contains.
+ * Sorted input degenerates the unbalanced tree into a list, which is exactly what the benchmark should expose;
+ * sizes are kept small enough for the recursive insert not to overflow the stack.
+ *
+ * @author Anton Hrytsyk
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinarySearchTreeBenchmark {
+
+    /**
+     * Number of lookups per contains invocation.
+     */
+    private static final int LOOKUPS = 1 << 10;
+
+    @Param({"1000", "5000"})
+    int size;
+
+    @Param({"random", "sorted"})
+    String order;
+
+    Integer[] keys;
+    Integer[] lookups;
+    BinarySearchTree<Integer> tree;
+
+    @Setup
+    public void setUp() {
+        keys = new Integer[size];
+        Random random = new Random(DictionaryFile.SEED);
+        for (int i = 0; i < size; i++)
+            keys[i] = "sorted".equals(order) ? i * 2 : random.nextInt(size * 2);
+
+        tree = new BinarySearchTree<>();
+        for (Integer key : keys) tree.insert(key);
+
+        // Half of the lookups hit (even numbers), half miss (odd numbers).
+        lookups = new Integer[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++)
+            lookups[i] = random.nextInt(size * 2);
+    }
+
+    @Benchmark
+    public BinarySearchTree<Integer> insert() {
+        BinarySearchTree<Integer> fresh = new BinarySearchTree<>();
+        for (Integer key : keys) fresh.insert(key);
+        return fresh;
+    }
+
+    @Benchmark
+    public int contains() {
+        int found = 0;
+        for (Integer key : lookups)
+            if (tree.contains(key)) found++;
+        return found;
+    }
+
+}
@@ -0,0 +1,76 @@
+package jmh;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Gives benchmarks access to the real <code> dictionary.txt </code>.
+ *
+ * The file is looked up in the <code> dictionary </code> system property first,
+ * then as <code> src/data/dictionary.txt </code> relative to the working directory and its parents,
+ * so benchmarks work when started from the project root as well as from the module directory.
+ *
+ * @author Anton Hrytsyk
+ */
+final class DictionaryFile {
+
+    /**
+     * Seed used for every shuffle, so all benchmarks and runs see the same words.
+     */
+    static final long SEED = 42;
+
+    private DictionaryFile() {
+    }
+
+    /**
+     * Finds the dictionary file.
+     * @throws IllegalStateException if the file can't be found.
+     * @return path of the dictionary.
+     */
+    static Path locate() {
+
+        String property = System.getProperty("dictionary");
+        if (property != null)
+            return Paths.get(property);
+
+        for (Path dir = Paths.get("").toAbsolutePath(); dir != null; dir = dir.getParent()) {
+            Path candidate = dir.resolve("src/data/dictionary.txt");
+            if (Files.isRegularFile(candidate))
+                return candidate;
+        }
+
+        throw new IllegalStateException("dictionary.txt not found, set -Ddictionary=<path>");
+    }
+
+    /**
+     * Reads all words of the dictionary.
+     * @return words in file order.
+     */
+    static List<String> words() {
+        try {
+            return Files.readAllLines(locate(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns a reproducible random sample of the dictionary.
+     * @param size number of words, capped by the dictionary size.
+     * @return shuffled words.
+     */
+    static List<String> sample(int size) {
+        List<String> words = new ArrayList<>(words());
+        Collections.shuffle(words, new Random(SEED));
+        return new ArrayList<>(words.subList(0, Math.min(size, words.size())));
+    }
+
+}
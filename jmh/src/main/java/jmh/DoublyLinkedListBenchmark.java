@@ -0,0 +1,71 @@
+package jmh;
+
+import dataStructures.DoublyLinkedList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of DoublyLinkedList.get with sequential and random index patterns, and of plain iteration.
+ *
+ * @author Anton Hrytsyk
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DoublyLinkedListBenchmark {
+
+    /**
+     * Number of get calls per invocation.
+     */
+    private static final int ACCESSES = 1 << 10;
+
+    @Param({"1000", "100000"})
+    int size;
+
+    @Param({"sequential", "random"})
+    String access;
+
+    DoublyLinkedList<Integer> list;
+    int[] indexes;
+
+    @Setup
+    public void setUp() {
+        list = new DoublyLinkedList<>();
+        for (int i = 0; i < size; i++) list.add(i);
+
+        Random random = new Random(DictionaryFile.SEED);
+        indexes = new int[ACCESSES];
+        for (int i = 0; i < ACCESSES; i++)
+            indexes[i] = "sequential".equals(access) ? i % size : random.nextInt(size);
+    }
+
+    @Benchmark
+    public long get() {
+        long sum = 0;
+        for (int index : indexes) sum += list.get(index);
+        return sum;
+    }
+
+    @Benchmark
+    public long iterate() {
+        long sum = 0;
+        for (int value : list) sum += value;
+        return sum;
+    }
+
+}
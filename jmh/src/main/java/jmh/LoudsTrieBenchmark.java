@@ -0,0 +1,106 @@
+package jmh;
+
+import dataStructures.AutoCompleteDictionaryTrie;
+import dataStructures.LoudsTrie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoudsTrie against the pointer-based AutoCompleteDictionaryTrie on the whole dictionary.
+ *
+ * Queries are the same kind as in TrieBenchmark: prefixes of random words, words and words with a typo.
+ * Sizes of both tries are compared by <code> benchmarks.TrieSizeBenchmark </code>.
+ *
+ * @author Anton Hrytsyk
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoudsTrieBenchmark {
+
+    /**
+     * Number of pre-generated queries.
+     */
+    private static final int QUERIES = 1 << 10;
+
+    @Param({"2", "4"})
+    int prefixLength;
+
+    @Param({"10"})
+    int k;
+
+    AutoCompleteDictionaryTrie trie;
+    LoudsTrie louds;
+    String[] prefixes;
+    String[] hits;
+    String[] misses;
+    int next;
+
+    @Setup
+    public void setUp() {
+
+        List<String> words = DictionaryFile.sample(Integer.MAX_VALUE);
+        trie = new AutoCompleteDictionaryTrie(words.iterator());
+        louds = new LoudsTrie(trie);
+
+        Random random = new Random(DictionaryFile.SEED);
+        prefixes = new String[QUERIES];
+        hits = new String[QUERIES];
+        misses = new String[QUERIES];
+        for (int i = 0; i < QUERIES; ) {
+            String word = words.get(random.nextInt(words.size()));
+            if (word.length() < prefixLength) continue;
+            prefixes[i] = word.substring(0, prefixLength);
+            hits[i] = word;
+            int typo = word.length() / 2;
+            misses[i++] = word.substring(0, typo) + "qx" + word.substring(typo);
+        }
+    }
+
+    @Benchmark
+    public List<String> completionsPointer() {
+        return trie.produceCompletions(prefixes[next++ & (QUERIES - 1)], k);
+    }
+
+    @Benchmark
+    public List<String> completionsLouds() {
+        return louds.produceCompletions(prefixes[next++ & (QUERIES - 1)], k);
+    }
+
+    @Benchmark
+    public boolean isWordHitPointer() {
+        return trie.isWord(hits[next++ & (QUERIES - 1)]);
+    }
+
+    @Benchmark
+    public boolean isWordHitLouds() {
+        return louds.isWord(hits[next++ & (QUERIES - 1)]);
+    }
+
+    @Benchmark
+    public boolean isWordMissPointer() {
+        return trie.isWord(misses[next++ & (QUERIES - 1)]);
+    }
+
+    @Benchmark
+    public boolean isWordMissLouds() {
+        return louds.isWord(misses[next++ & (QUERIES - 1)]);
+    }
+
+}
@@ -0,0 +1,55 @@
+package jmh;
+
+import algorithms.Algorithms;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the O(n^2) sorts in Algorithms, on sizes where they still finish in reasonable time.
+ *
+ * @author Anton Hrytsyk
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QuadraticSortBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int size;
+
+    @Param({"random", "sorted", "reversed", "nearlySorted"})
+    String input;
+
+    Integer[] boxed;
+
+    @Setup
+    public void setUp() {
+        boxed = Arrays.stream(SortingBenchmark.input(input, size)).boxed().toArray(Integer[]::new);
+    }
+
+    @Benchmark
+    public Integer[] selectionSort() {
+        return Algorithms.selectionSort(boxed.clone());
+    }
+
+    @Benchmark
+    public Integer[] insertionSort() {
+        return Algorithms.insertionSort(boxed.clone());
+    }
+
+}
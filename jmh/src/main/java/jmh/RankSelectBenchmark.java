@@ -0,0 +1,90 @@
+package jmh;
+
+import dataStructures.RankSelectBitVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rank and select on RankSelectBitVector, the operations every LoudsTrie step is made of.
+ *
+ * The vector holds random bits with half of them set, like a LOUDS shape. The small size fits into the caches,
+ * the large one doesn't, so the difference shows what the tables cost in cache misses.
+ *
+ * @author Anton Hrytsyk
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RankSelectBenchmark {
+
+    /**
+     * Number of pre-generated arguments.
+     */
+    private static final int QUERIES = 1 << 12;
+
+    /**
+     * Number of bits.
+     */
+    @Param({"1048576", "268435456"})
+    int length;
+
+    RankSelectBitVector vector;
+    int[] positions;
+    int[] oneRanks;
+    int[] zeroRanks;
+    int next;
+
+    @Setup
+    public void setUp() {
+
+        Random random = new Random(DictionaryFile.SEED);
+        long[] bits = new long[(length + Long.SIZE - 1) / Long.SIZE];
+        for (int i = 0; i < bits.length; i++) bits[i] = random.nextLong();
+        vector = new RankSelectBitVector(bits, length);
+
+        positions = new int[QUERIES];
+        oneRanks = new int[QUERIES];
+        zeroRanks = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            positions[i] = random.nextInt(length);
+            oneRanks[i] = random.nextInt(vector.ones());
+            zeroRanks[i] = random.nextInt(length - vector.ones());
+        }
+    }
+
+    @Benchmark
+    public int rank1() {
+        return vector.rank1(positions[next++ & (QUERIES - 1)]);
+    }
+
+    @Benchmark
+    public int select1() {
+        return vector.select1(oneRanks[next++ & (QUERIES - 1)]);
+    }
+
+    @Benchmark
+    public int select0() {
+        return vector.select0(zeroRanks[next++ & (QUERIES - 1)]);
+    }
+
+    @Benchmark
+    public int nextClearBit() {
+        return vector.nextClearBit(positions[next++ & (QUERIES - 1)]);
+    }
+
+}
@@ -0,0 +1,121 @@
+package jmh;
+
+import algorithms.Algorithms;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the sorting engines in Algorithms against Arrays.sort.
+ * Every invocation sorts a fresh copy of the input, copying is included for all contenders.
+ * The quadratic sorts live in {@link QuadraticSortBenchmark} with smaller sizes.
+ *
+ * @author Anton Hrytsyk
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SortingBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    @Param({"random", "sorted", "reversed", "nearlySorted"})
+    String input;
+
+    Integer[] boxed;
+    int[] ints;
+
+    @Setup
+    public void setUp() {
+        ints = input(input, size);
+        boxed = Arrays.stream(ints).boxed().toArray(Integer[]::new);
+    }
+
+    /**
+     * Generates input of the given shape.
+     * @param shape random, sorted, reversed or nearlySorted (sorted with 1% of random swaps).
+     * @param size number of values.
+     * @return generated values.
+     */
+    static int[] input(String shape, int size) {
+
+        Random random = new Random(DictionaryFile.SEED);
+        int[] values = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            switch (shape) {
+                case "random":   values[i] = random.nextInt(); break;
+                case "reversed": values[i] = size - i; break;
+                default:         values[i] = i;
+            }
+        }
+
+        if ("nearlySorted".equals(shape)) {
+            for (int i = 0; i < size / 100; i++) {
+                int a = random.nextInt(size), b = random.nextInt(size);
+                int temp = values[a];
+                values[a] = values[b];
+                values[b] = temp;
+            }
+        }
+
+        return values;
+    }
+
+    @Benchmark
+    public Integer[] mergeSort() {
+        return Algorithms.mergeSort(boxed.clone(), Comparator.naturalOrder());
+    }
+
+    @Benchmark
+    public Integer[] adaptiveMergeSort() {
+        return Algorithms.adaptiveMergeSort(boxed.clone(), Comparator.naturalOrder());
+    }
+
+    @Benchmark
+    public Integer[] introSort() {
+        return Algorithms.introSort(boxed.clone(), Comparator.naturalOrder());
+    }
+
+    @Benchmark
+    public Integer[] sort() {
+        return Algorithms.sort(boxed.clone(), Comparator.naturalOrder());
+    }
+
+    @Benchmark
+    public Integer[] arraysSort() {
+        Integer[] arr = boxed.clone();
+        Arrays.sort(arr, Comparator.naturalOrder());
+        return arr;
+    }
+
+    @Benchmark
+    public int[] radixSortInts() {
+        return Algorithms.radixSort(ints.clone());
+    }
+
+    @Benchmark
+    public int[] arraysSortInts() {
+        int[] arr = ints.clone();
+        Arrays.sort(arr);
+        return arr;
+    }
+
+}
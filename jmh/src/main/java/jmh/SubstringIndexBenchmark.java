@@ -0,0 +1,94 @@
+package jmh;
+
+import dataStructures.SubstringIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Substring search with SubstringIndex against a linear scan of the word list, on the whole dictionary.
+ *
+ * Queries are infixes of random dictionary words, every invocation takes the next one from a pre-generated pool.
+ *
+ * @author Anton Hrytsyk
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SubstringIndexBenchmark {
+
+    /**
+     * Number of pre-generated queries.
+     */
+    private static final int QUERIES = 1 << 10;
+
+    @Param({"2", "3", "5"})
+    int queryLength;
+
+    @Param({"10", "100"})
+    int k;
+
+    String[] words;
+    SubstringIndex index;
+    String[] queries;
+    int next;
+
+    @Setup
+    public void setUp() {
+
+        List<String> all = DictionaryFile.sample(Integer.MAX_VALUE);
+        words = new String[all.size()];
+        for (int i = 0; i < words.length; i++) words[i] = all.get(i).toLowerCase();
+        index = new SubstringIndex(all.iterator());
+
+        Random random = new Random(DictionaryFile.SEED);
+        queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; ) {
+            String word = words[random.nextInt(words.length)];
+            if (word.length() < queryLength) continue;
+            int start = random.nextInt(word.length() - queryLength + 1);
+            queries[i++] = word.substring(start, start + queryLength);
+        }
+    }
+
+    @Benchmark
+    public List<String> index() {
+        return index.containsSubstring(queries[next++ & (QUERIES - 1)], k);
+    }
+
+    @Benchmark
+    public List<String> linearScan() {
+        String query = queries[next++ & (QUERIES - 1)];
+        List<String> matches = new ArrayList<>();
+        for (String word : words) {
+            if (word.contains(query)) {
+                matches.add(word);
+                if (matches.size() == k) break;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SubstringIndex build() {
+        return new SubstringIndex(List.of(words).iterator());
+    }
+
+}
@@ -0,0 +1,136 @@
+package jmh;
+
+import dataStructures.AutoCompleteDictionaryTrie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of AutoCompleteDictionaryTrie on samples of the real dictionary.
+ *
+ * Every invocation works on the next query of a pre-generated, power-of-two sized pool,
+ * so the JIT can't specialize on a single prefix.
+ *
+ * @author Anton Hrytsyk
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrieBenchmark {
+
+    /**
+     * Number of pre-generated queries.
+     */
+    private static final int QUERIES = 1 << 10;
+
+    /**
+     * Trie built from a sample of the dictionary.
+     */
+    @State(Scope.Benchmark)
+    public static class Dictionary {
+
+        /**
+         * Number of words in the trie, capped by the dictionary size.
+         */
+        @Param({"10000", "50000", "100000"})
+        int dictionarySize;
+
+        List<String> words;
+        AutoCompleteDictionaryTrie trie;
+
+        @Setup
+        public void setUp() {
+            words = DictionaryFile.sample(dictionarySize);
+            trie = new AutoCompleteDictionaryTrie(words.iterator());
+        }
+    }
+
+    /**
+     * Prefixes of dictionary words and the number of completions to produce.
+     */
+    @State(Scope.Thread)
+    public static class Completions {
+
+        @Param({"1", "2", "3", "5"})
+        int prefixLength;
+
+        @Param({"10", "100"})
+        int k;
+
+        String[] prefixes;
+        int next;
+
+        @Setup
+        public void setUp(Dictionary dictionary) {
+            Random random = new Random(DictionaryFile.SEED);
+            prefixes = new String[QUERIES];
+            for (int i = 0; i < QUERIES; ) {
+                String word = dictionary.words.get(random.nextInt(dictionary.words.size()));
+                if (word.length() >= prefixLength)
+                    prefixes[i++] = word.substring(0, prefixLength);
+            }
+        }
+    }
+
+    /**
+     * Words that are in the trie and words that are not.
+     */
+    @State(Scope.Thread)
+    public static class Lookups {
+
+        String[] hits;
+        String[] misses;
+        int next;
+
+        @Setup
+        public void setUp(Dictionary dictionary) {
+            Random random = new Random(DictionaryFile.SEED);
+            hits = new String[QUERIES];
+            misses = new String[QUERIES];
+            for (int i = 0; i < QUERIES; i++) {
+                String word = dictionary.words.get(random.nextInt(dictionary.words.size()));
+                hits[i] = word;
+                // Typo in the middle of the word, the way most spell-check misses look.
+                int typo = word.length() / 2;
+                misses[i] = word.substring(0, typo) + "qx" + word.substring(typo);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<String> produceCompletions(Dictionary dictionary, Completions completions) {
+        String prefix = completions.prefixes[completions.next++ & (QUERIES - 1)];
+        return dictionary.trie.produceCompletions(prefix, completions.k);
+    }
+
+    @Benchmark
+    public boolean isWordHit(Dictionary dictionary, Lookups lookups) {
+        return dictionary.trie.isWord(lookups.hits[lookups.next++ & (QUERIES - 1)]);
+    }
+
+    @Benchmark
+    public boolean isWordMiss(Dictionary dictionary, Lookups lookups) {
+        return dictionary.trie.isWord(lookups.misses[lookups.next++ & (QUERIES - 1)]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public AutoCompleteDictionaryTrie build(Dictionary dictionary) {
+        return new AutoCompleteDictionaryTrie(dictionary.words.iterator());
+    }
+
+}
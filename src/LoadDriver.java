@@ -0,0 +1,383 @@
+import dataStructures.AutoCompleteDictionaryTrie;
+import dataStructures.LatencyHistogram;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * End to end load generator for AutoCompleteDictionaryTrie.
+ *
+ * Simulates users typing into a search box: every session picks a word with Zipfian popularity
+ * and issues one <code> produceCompletions </code> query per keystroke, each with a prefix one character longer.
+ * N threads run sessions back to back (closed loop) for a warmup and then a measured period.
+ * Reports latency percentiles, throughput and bytes allocated per query.
+ *
+ * With <code> --url </code> the queries go to a running <code> server.AutoCompleteServer </code> over HTTP
+ * (one keep-alive client per thread) instead of the in-process trie, the dictionary is then only used to pick words.
+ * Allocation is measured on the client side in that case.
+ *
+ * Usage:
+ * <pre>
+ *     java LoadDriver [--threads=N] [--seconds=S] [--warmup=S] [--k=K] [--zipf=EXPONENT] [--dictionary=PATH] [--url=URL]
+ * </pre>
+ *
+ * @author Anton Hrytsyk
+ */
+public final class LoadDriver {
+
+    /**
+     * Settings, overridable from the command line.
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int seconds = 10;
+    private int warmup = 5;
+    private int k = 10;
+    private double zipf = 1.0;
+    private String dictionary = "src/data/dictionary.txt";
+    private String url;
+
+    /**
+     * HotSpot extension of the thread bean, used to read per-thread allocation counters.
+     */
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+
+        LoadDriver driver = new LoadDriver();
+        driver.parse(args);
+        driver.run();
+
+    }
+
+
+    /**
+     * Reads <code> --name=value </code> options.
+     * @param args command line arguments.
+     * @throws IllegalArgumentException if an option is unknown or malformed.
+     */
+    private void parse(String[] args) {
+
+        for (String arg : args) {
+
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0)
+                throw new IllegalArgumentException("expected --name=value, got: " + arg);
+
+            String name = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+
+            switch (name) {
+                case "threads":    threads = Integer.parseInt(value); break;
+                case "seconds":    seconds = Integer.parseInt(value); break;
+                case "warmup":     warmup = Integer.parseInt(value); break;
+                case "k":          k = Integer.parseInt(value); break;
+                case "zipf":       zipf = Double.parseDouble(value); break;
+                case "dictionary": dictionary = value; break;
+                case "url":        url = value; break;
+                default: throw new IllegalArgumentException("unknown option: " + name);
+            }
+        }
+    }
+
+
+    /**
+     * Loads the dictionary, runs warmup and measured phases and prints the report.
+     * @throws IOException if the dictionary can't be read.
+     * @throws InterruptedException if interrupted while waiting for the workers.
+     */
+    private void run() throws IOException, InterruptedException {
+
+        AutoCompleteDictionaryTrie trie = null;
+        if (url == null) {
+            long loadStart = System.nanoTime();
+            trie = new AutoCompleteDictionaryTrie(dictionary);
+            System.out.printf("Loaded %d words in %.1f ms%n", trie.size(), (System.nanoTime() - loadStart) / 1e6);
+        }
+        else System.out.printf("Target: %s%n", url);
+
+        // Popularity ranks are assigned in a random order, so that popular words aren't all alphabetically close.
+        List<String> words = new ArrayList<>();
+        for (String word : Files.readAllLines(Paths.get(dictionary), StandardCharsets.UTF_8))
+            if (!word.isEmpty()) words.add(word.toLowerCase());
+        Collections.shuffle(words, new Random(42));
+        String[] ranked = words.toArray(new String[0]);
+        double[] popularity = zipfDistribution(ranked.length, zipf);
+
+        System.out.printf("Threads: %d, warmup: %d s, measured: %d s, k: %d, zipf exponent: %.2f%n",
+                threads, warmup, seconds, k, zipf);
+
+        measure(trie, ranked, popularity, warmup);
+        Result result = measure(trie, ranked, popularity, seconds);
+        result.print();
+    }
+
+
+    /**
+     * Runs all workers for the given duration.
+     * @param trie       trie under load.
+     * @param ranked     words ordered by popularity, most popular first.
+     * @param popularity cumulative Zipfian distribution over the ranks.
+     * @param duration   duration of the phase in seconds.
+     * @return merged results of all workers.
+     * @throws IllegalStateException if a query failed, the partial results of the phase are discarded.
+     * @throws InterruptedException if interrupted while waiting for the workers.
+     */
+    private Result measure(AutoCompleteDictionaryTrie trie, String[] ranked, double[] popularity, int duration)
+            throws InterruptedException {
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+        Worker[] workers = new Worker[threads];
+        Thread[] pool = new Thread[threads];
+
+        for (int i = 0; i < threads; i++) {
+            Query query = (trie != null) ? new TrieQuery(trie) : new HttpQuery(url);
+            workers[i] = new Worker(query, ranked, popularity, k, i, running, failure, start);
+            pool[i] = new Thread(workers[i], "load-" + i);
+            pool[i].start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        // A failing worker clears the flag, then the phase ends early.
+        long end = begin + TimeUnit.SECONDS.toNanos(duration);
+        for (long left; running.get() && (left = end - System.nanoTime()) > 0; )
+            Thread.sleep(Math.min(TimeUnit.NANOSECONDS.toMillis(left) + 1, 100));
+        running.set(false);
+
+        for (Thread thread : pool) thread.join();
+        long elapsed = System.nanoTime() - begin;
+
+        if (failure.get() != null)
+            throw new IllegalStateException("load run aborted, a query failed", failure.get());
+
+        Result result = new Result(elapsed);
+        for (Worker worker : workers) {
+            result.latency.add(worker.latency);
+            result.queries += worker.queries;
+            result.allocated += worker.allocated;
+        }
+        return result;
+    }
+
+
+    /**
+     * Builds cumulative Zipfian distribution: probability of rank r is proportional to 1 / r^exponent.
+     * @param size     number of ranks.
+     * @param exponent Zipf exponent, 0 makes all ranks equally popular.
+     * @return cumulative probabilities, the last one is 1.
+     */
+    private static double[] zipfDistribution(int size, double exponent) {
+
+        double[] cumulative = new double[size];
+        double total = 0;
+        for (int rank = 0; rank < size; rank++) {
+            total += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < size; rank++)
+            cumulative[rank] /= total;
+
+        return cumulative;
+    }
+
+
+    /**
+     * Completion query against the system under load.
+     */
+    private interface Query {
+
+        /**
+         * Issues a single completion query.
+         * @param prefix prefix typed so far.
+         * @param k      number of completions.
+         * @return size of the answer, keeps the query from being optimized away.
+         * @throws Exception if the query fails.
+         */
+        long complete(String prefix, int k) throws Exception;
+    }
+
+
+    /**
+     * Queries the trie in-process.
+     */
+    private static final class TrieQuery implements Query {
+
+        private final AutoCompleteDictionaryTrie trie;
+
+        TrieQuery(AutoCompleteDictionaryTrie trie) {
+            this.trie = trie;
+        }
+
+        @Override
+        public long complete(String prefix, int k) {
+            return trie.produceCompletions(prefix, k).size();
+        }
+    }
+
+
+    /**
+     * Queries <code> /complete </code> of a running server, the client keeps its connection alive.
+     */
+    private static final class HttpQuery implements Query {
+
+        private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        private final String base;
+
+        HttpQuery(String url) {
+            this.base = url.endsWith("/") ? url + "complete" : url + "/complete";
+        }
+
+        @Override
+        public long complete(String prefix, int k) throws IOException, InterruptedException {
+            URI uri = URI.create(base + "?q=" + URLEncoder.encode(prefix, StandardCharsets.UTF_8) + "&k=" + k);
+            HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200)
+                throw new IOException("HTTP " + response.statusCode() + " for " + uri);
+            return response.body().length;
+        }
+    }
+
+
+    /**
+     * Single load thread, runs typing sessions until stopped.
+     */
+    private static final class Worker implements Runnable {
+
+        private final Query query;
+        private final String[] ranked;
+        private final double[] popularity;
+        private final int k;
+        private final Random random;
+        private final AtomicBoolean running;
+
+        /**
+         * First failure of any worker, shared by all of them.
+         */
+        private final AtomicReference<Exception> failure;
+
+        private final CountDownLatch start;
+
+        final LatencyHistogram latency = new LatencyHistogram();
+        long queries;
+        long allocated;
+
+        /**
+         * Total number of returned completions, keeps the queries from being optimized away.
+         */
+        long completions;
+
+        Worker(Query query, String[] ranked, double[] popularity, int k, int id,
+               AtomicBoolean running, AtomicReference<Exception> failure, CountDownLatch start) {
+            this.query = query;
+            this.ranked = ranked;
+            this.popularity = popularity;
+            this.k = k;
+            this.random = new Random(id);
+            this.running = running;
+            this.failure = failure;
+            this.start = start;
+        }
+
+        @Override
+        public void run() {
+
+            try {
+                start.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            long thread = Thread.currentThread().getId();
+            long bytes = THREADS.getThreadAllocatedBytes(thread);
+            long sink = 0;
+
+            while (running.get()) {
+
+                String word = pickWord();
+
+                // One query per keystroke until the user picks a completion or finishes typing.
+                int typed = 1 + random.nextInt(word.length());
+                for (int length = 1; length <= typed; length++) {
+                    String prefix = word.substring(0, length);
+
+                    long begin = System.nanoTime();
+                    try {
+                        sink += query.complete(prefix, k);
+                    } catch (Exception e) {
+                        // Partial results would look valid, so the failure stops the whole run instead.
+                        failure.compareAndSet(null, new IllegalStateException("query failed: " + prefix, e));
+                        running.set(false);
+                        return;
+                    }
+                    latency.record(System.nanoTime() - begin);
+                    queries++;
+                }
+            }
+
+            allocated = THREADS.getThreadAllocatedBytes(thread) - bytes;
+            completions = sink;
+        }
+
+        /**
+         * Samples a word from the Zipfian distribution.
+         * @return picked word.
+         */
+        private String pickWord() {
+            int rank = Arrays.binarySearch(popularity, random.nextDouble());
+            if (rank < 0) rank = -rank - 1;
+            return ranked[Math.min(rank, ranked.length - 1)];
+        }
+    }
+
+
+    /**
+     * Merged outcome of a phase.
+     */
+    private static final class Result {
+
+        final LatencyHistogram latency = new LatencyHistogram();
+        final long elapsed;
+        long queries;
+        long allocated;
+
+        Result(long elapsed) {
+            this.elapsed = elapsed;
+        }
+
+        /**
+         * Prints the report.
+         * Allocation includes the substring of every keystroke, which a real client would send anyway.
+         */
+        void print() {
+            System.out.printf("Queries:     %d%n", queries);
+            System.out.printf("Throughput:  %.0f queries/s%n", queries / (elapsed / 1e9));
+            System.out.printf("Latency us:  p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f mean=%.1f%n",
+                    latency.percentile(50) / 1e3, latency.percentile(90) / 1e3, latency.percentile(99) / 1e3,
+                    latency.percentile(99.9) / 1e3, latency.max() / 1e3, latency.mean() / 1e3);
+            System.out.printf("Allocation:  %.0f bytes/query%n", queries == 0 ? 0.0 : (double) allocated / queries);
+        }
+    }
+
+}
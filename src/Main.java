@@ -20,7 +20,7 @@ public final class Main {
 
         /*
          * Output:
-         * [help, held, hell, helm, helps, helen, helga, helix, hells, hello]
+         * [held, hell, helm, help, helen, helga, helix, hello, hells, helms]
          * false
          */
 
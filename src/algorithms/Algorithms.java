@@ -1,6 +1,8 @@
 package algorithms;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * This class contains implementations of different popular algorithms.
@@ -10,7 +12,10 @@ public final class Algorithms {
 
 
     /**
-     * Generic wrapper around binarySearch for array.
+     * Binary search over the whole list.
+     * Lists that implement <code> RandomAccess </code> are searched by index,
+     * other lists (e.g. linked lists) are searched by moving a single list iterator back and forth,
+     * so the list is never copied.
      * @param key element to search for
      * @param list list to search
      * @param <K> Type of key
@@ -18,60 +23,295 @@ public final class Algorithms {
      * @return index of key or -1 if key isn't found.
      */
     public static <K extends Comparable<K>, T extends List<K>> int binarySearch(K key, T list ) {
-        return binarySearch(key, (K[]) list.toArray(), 0, list.size() - 1);
+        return binarySearch(key, list, 0, list.size() - 1);
     }
 
     /**
-     * Recursive binary search algorithm.
-     * Works with any list
+     * Iterative binary search algorithm.
+     * Works with any list, see {@link #binarySearch(Comparable, List)}.
+     * Makes a single comparison per level, if the key occurs several times the first occurrence is found.
      * @param key element to search for
      * @param list list to search
      * @param low starting index
-     * @param high ending index
+     * @param high ending index, inclusive
      * @param <K> Type of key
      * @param <T> Type of List
      * @return index of key or -1 if key not found.
      */
     public static <K extends Comparable<K>, T extends List<K>> int binarySearch(K key, T list, int low, int high ) {
 
-          int middle = (low + high) / 2;
+        if (high < low)
+            return -1;
 
-          if (high < low)
-              return -1;
-          if (key.compareTo(list.get(middle)) < 0)
-              return binarySearch(key, list, low, middle - 1);
-          if (key.compareTo(list.get(middle)) > 0)
-              return binarySearch(key, list, middle + 1, high);
-          if (key.compareTo(list.get(middle)) == 0)
-              return middle;
+        if (list instanceof RandomAccess) {
+            int index = bound(key, list, low, high + 1, false);
+            return (index <= high && key.compareTo(list.get(index)) == 0) ? index : -1;
+        }
 
-        return -1;
+        ListIterator<K> iterator = list.listIterator(low);
+        int index = bound(key, iterator, low, high + 1, false);
+        return (index <= high && key.compareTo(get(iterator, index)) == 0) ? index : -1;
     }
 
     /**
-     * Recursive binary search.
+     * Binary search over the whole array.
+     * @param key element to search for
+     * @param arr sorted array to search
+     * @param <K> Type of key
+     * @return index of key or -1 if key not found.
+     */
+    public static <K extends Comparable<K>> int binarySearch(K key, K arr[]) {
+        return binarySearch(key, arr, 0, arr.length - 1);
+    }
+
+    /**
+     * Iterative binary search.
      * Works with arrays.
+     * Makes a single comparison per level, if the key occurs several times the first occurrence is found.
      * @param key element to search for
      * @param arr array to search
      * @param low starting index
-     * @param high ending index
+     * @param high ending index, inclusive
      * @param <K> Type of key
      * @return index of key or -1 if key not found.
      */
     public static <K extends Comparable<K>> int binarySearch(K key, K arr[], int low, int high) {
-        int middle = (low + high) / 2;
 
         if (high < low)
             return -1;
 
-        if (key.compareTo(arr[middle]) < 0)
-            return binarySearch(key, arr, low, middle - 1);
-        if (key.compareTo(arr[middle]) > 0)
-            return binarySearch(key, arr, middle + 1, high);
-        if (key.compareTo(arr[middle]) == 0)
-            return middle;
+        int index = bound(key, arr, low, high + 1, false);
+        return (index <= high && key.compareTo(arr[index]) == 0) ? index : -1;
+    }
+
+    /**
+     * Binary search over a sorted <code> int </code> array.
+     * @param key value to search for
+     * @param arr sorted array to search
+     * @return index of key or -1 if key not found.
+     */
+    public static int binarySearch(int key, int[] arr) {
+        int index = lowerBound(key, arr);
+        return (index < arr.length && arr[index] == key) ? index : -1;
+    }
+
+    /**
+     * Binary search over a sorted <code> long </code> array.
+     * @param key value to search for
+     * @param arr sorted array to search
+     * @return index of key or -1 if key not found.
+     */
+    public static int binarySearch(long key, long[] arr) {
+        int index = lowerBound(key, arr);
+        return (index < arr.length && arr[index] == key) ? index : -1;
+    }
+
+    /**
+     * Finds the first position at which key could be inserted without breaking the order.
+     * @param key element to search for
+     * @param arr sorted array to search
+     * @param <K> Type of key
+     * @return index of the first element that is not less than key, or <code> arr.length </code> if there is none.
+     */
+    public static <K extends Comparable<K>> int lowerBound(K key, K arr[]) {
+        return bound(key, arr, 0, arr.length, false);
+    }
+
+    /**
+     * Finds the last position at which key could be inserted without breaking the order.
+     * @param key element to search for
+     * @param arr sorted array to search
+     * @param <K> Type of key
+     * @return index of the first element that is greater than key, or <code> arr.length </code> if there is none.
+     */
+    public static <K extends Comparable<K>> int upperBound(K key, K arr[]) {
+        return bound(key, arr, 0, arr.length, true);
+    }
+
+    /**
+     * Finds the first position at which key could be inserted without breaking the order.
+     * See {@link #binarySearch(Comparable, List)} for how different lists are traversed.
+     * @param key element to search for
+     * @param list sorted list to search
+     * @param <K> Type of key
+     * @return index of the first element that is not less than key, or <code> list.size() </code> if there is none.
+     */
+    public static <K extends Comparable<K>> int lowerBound(K key, List<K> list) {
+        return (list instanceof RandomAccess)
+                ? bound(key, list, 0, list.size(), false)
+                : bound(key, list.listIterator(), 0, list.size(), false);
+    }
+
+    /**
+     * Finds the last position at which key could be inserted without breaking the order.
+     * See {@link #binarySearch(Comparable, List)} for how different lists are traversed.
+     * @param key element to search for
+     * @param list sorted list to search
+     * @param <K> Type of key
+     * @return index of the first element that is greater than key, or <code> list.size() </code> if there is none.
+     */
+    public static <K extends Comparable<K>> int upperBound(K key, List<K> list) {
+        return (list instanceof RandomAccess)
+                ? bound(key, list, 0, list.size(), true)
+                : bound(key, list.listIterator(), 0, list.size(), true);
+    }
+
+    /**
+     * Finds the first position at which key could be inserted without breaking the order.
+     * @param key value to search for
+     * @param arr sorted array to search
+     * @return index of the first value that is not less than key, or <code> arr.length </code> if there is none.
+     */
+    public static int lowerBound(int key, int[] arr) {
+        int low = 0, high = arr.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (arr[middle] < key) low = middle + 1;
+            else                   high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Finds the last position at which key could be inserted without breaking the order.
+     * @param key value to search for
+     * @param arr sorted array to search
+     * @return index of the first value that is greater than key, or <code> arr.length </code> if there is none.
+     */
+    public static int upperBound(int key, int[] arr) {
+        int low = 0, high = arr.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (arr[middle] <= key) low = middle + 1;
+            else                    high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Finds the first position at which key could be inserted without breaking the order.
+     * @param key value to search for
+     * @param arr sorted array to search
+     * @return index of the first value that is not less than key, or <code> arr.length </code> if there is none.
+     */
+    public static int lowerBound(long key, long[] arr) {
+        int low = 0, high = arr.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (arr[middle] < key) low = middle + 1;
+            else                   high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Finds the last position at which key could be inserted without breaking the order.
+     * @param key value to search for
+     * @param arr sorted array to search
+     * @return index of the first value that is greater than key, or <code> arr.length </code> if there is none.
+     */
+    public static int upperBound(long key, long[] arr) {
+        int low = 0, high = arr.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (arr[middle] <= key) low = middle + 1;
+            else                    high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Iterative bound search over the range of the array.
+     * Makes exactly one comparison per level, the midpoint is computed without overflow.
+     * @param key element to search for
+     * @param arr sorted array to search
+     * @param low first index of the range, inclusive
+     * @param high last index of the range, exclusive
+     * @param upper <code> false </code> for the lower bound, <code> true </code> for the upper bound
+     * @param <K> Type of key
+     * @return index of the bound within <code> [low, high] </code>.
+     */
+    private static <K extends Comparable<K>> int bound(K key, K arr[], int low, int high, boolean upper) {
+
+        // Elements for which the comparison is below the limit lay to the left of the bound.
+        int limit = upper ? 1 : 0;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (arr[middle].compareTo(key) < limit) low = middle + 1;
+            else                                    high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Iterative bound search over the range of a random access list.
+     * @param key element to search for
+     * @param list sorted list to search
+     * @param low first index of the range, inclusive
+     * @param high last index of the range, exclusive
+     * @param upper <code> false </code> for the lower bound, <code> true </code> for the upper bound
+     * @param <K> Type of key
+     * @return index of the bound within <code> [low, high] </code>.
+     */
+    private static <K extends Comparable<K>> int bound(K key, List<K> list, int low, int high, boolean upper) {
 
-        return -1;
+        int limit = upper ? 1 : 0;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (list.get(middle).compareTo(key) < limit) low = middle + 1;
+            else                                         high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Iterative bound search over the range of a sequential list.
+     * The iterator walks to each probed position from the previous one,
+     * so the whole search follows O(n) links and makes O(log n) comparisons.
+     * @param key element to search for
+     * @param iterator list iterator positioned anywhere in the list, it is left near the bound
+     * @param low first index of the range, inclusive
+     * @param high last index of the range, exclusive
+     * @param upper <code> false </code> for the lower bound, <code> true </code> for the upper bound
+     * @param <K> Type of key
+     * @return index of the bound within <code> [low, high] </code>.
+     */
+    private static <K extends Comparable<K>> int bound(K key, ListIterator<K> iterator, int low, int high, boolean upper) {
+
+        int limit = upper ? 1 : 0;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (get(iterator, middle).compareTo(key) < limit) low = middle + 1;
+            else                                              high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Moves the list iterator to the given index and returns the element there.
+     * @param iterator list iterator to move
+     * @param index index of the element
+     * @param <T> type of elements
+     * @return element at the specified index.
+     */
+    private static <T> T get(ListIterator<T> iterator, int index) {
+
+        T element;
+        int position = iterator.nextIndex();
+
+        if (position <= index) {
+            do {
+                element = iterator.next();
+            } while (position++ < index);
+        } else {
+            do {
+                element = iterator.previous();
+            } while (--position > index);
+        }
+        return element;
     }
 
     /**
@@ -122,45 +362,831 @@ public final class Algorithms {
         return arr;
     }
 
+    /**
+     * Runs of this length or shorter are sorted with insertion sort instead of being split further.
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    /**
+     * Runs of this length or shorter are sorted sequentially by the parallel merge sort.
+     */
+    private static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+
     /**
      * Recursive merge-sort algorithm n(log(n)) complexity.
+     * Kept for raw <code> Comparable </code> arrays, delegates to {@link #mergeSort(Object[], Comparator)}.
      *
      * @param arr array that will be sorted
      * @return sorted array.
      */
+    @SuppressWarnings({"rawtypes", "unchecked"})
     public static  Comparable[] mergeSort(Comparable[] arr) {
+        return mergeSort(arr, (a, b) -> a.compareTo(b));
+    }
+
+    /**
+     * Stable merge-sort algorithm n(log(n)) complexity.
+     *
+     * A single scratch buffer of half the array's length is allocated up front and reused by every merge.
+     * Short runs are finished with insertion sort and already ordered halves skip the merge entirely.
+     *
+     * @param arr array that will be sorted.
+     * @param comparator defines the order of the elements.
+     * @param <T> type of elements of the array.
+     * @return sorted array.
+     */
+    public static <T> T[] mergeSort(T[] arr, Comparator<? super T> comparator) {
+
+        if (arr.length > 1) {
+            Object[] scratch = new Object[arr.length / 2 + 1];
+            mergeSort(arr, scratch, 0, arr.length, comparator);
+        }
+        return arr;
+    }
+
+    /**
+     * Parallel stable merge-sort algorithm.
+     * Splits the array into halves that are sorted as fork/join tasks in the common pool,
+     * runs shorter than <code> PARALLEL_SORT_THRESHOLD </code> are sorted sequentially.
+     *
+     * @param arr array that will be sorted.
+     * @param comparator defines the order of the elements.
+     * @param <T> type of elements of the array.
+     * @return sorted array.
+     */
+    public static <T> T[] parallelMergeSort(T[] arr, Comparator<? super T> comparator) {
+
+        if (arr.length <= PARALLEL_SORT_THRESHOLD || ForkJoinPool.getCommonPoolParallelism() == 1)
+            return mergeSort(arr, comparator);
+
+        Object[] scratch = new Object[arr.length];
+        ForkJoinPool.commonPool().invoke(new MergeSortTask<>(arr, scratch, 0, arr.length, comparator));
+        return arr;
+    }
+
+    /**
+     * Recursively sorts range of the array.
+     * @param arr array that contains the range.
+     * @param scratch buffer that can hold the left half of the range, it is filled from index zero.
+     * @param low first index of the range, inclusive.
+     * @param high last index of the range, exclusive.
+     * @param comparator defines the order of the elements.
+     * @param <T> type of elements of the array.
+     */
+    private static <T> void mergeSort(T[] arr, Object[] scratch, int low, int high, Comparator<? super T> comparator) {
+
+        if (high - low <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(arr, low, high, comparator);
+            return;
+        }
+
+        int middle = (low + high) >>> 1;
+        mergeSort(arr, scratch, low, middle, comparator);
+        mergeSort(arr, scratch, middle, high, comparator);
+        merge(arr, scratch, 0, low, middle, high, comparator);
+    }
+
+    /**
+     * Merges two adjacent sorted runs of the array.
+     * The left run is copied into the scratch buffer and merged back together with the right run,
+     * so the right run is never copied.
+     *
+     * @param arr array that contains the runs.
+     * @param scratch buffer that can hold the left run starting at <code> offset </code>.
+     * @param offset index in the scratch buffer where the left run is copied to.
+     * @param low first index of the left run, inclusive.
+     * @param middle first index of the right run.
+     * @param high last index of the right run, exclusive.
+     * @param comparator defines the order of the elements.
+     * @param <T> type of elements of the array.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> void merge(T[] arr, Object[] scratch, int offset, int low, int middle, int high,
+                                  Comparator<? super T> comparator) {
+
+        // Runs are already in order - nothing to merge.
+        if (comparator.compare(arr[middle - 1], arr[middle]) <= 0)
+            return;
+
+        int leftLength = middle - low;
+        System.arraycopy(arr, low, scratch, offset, leftLength);
+
+        // Declaring pointers into the left run, the right run and the output.
+        int i = offset, end = offset + leftLength, j = middle, k = low;
+
+        while (i < end && j < high) {
+            if (comparator.compare(arr[j], (T) scratch[i]) < 0)
+                arr[k++] = arr[j++];
+            else
+                arr[k++] = (T) scratch[i++];
+        }
+
+        // Leftovers of the right run are already in place, leftovers of the left run are copied back.
+        System.arraycopy(scratch, i, arr, k, end - i);
+    }
+
+    /**
+     * Insertion sort of the range of the array.
+     * @param arr array that contains the range.
+     * @param low first index of the range, inclusive.
+     * @param high last index of the range, exclusive.
+     * @param comparator defines the order of the elements.
+     * @param <T> type of elements of the array.
+     */
+    private static <T> void insertionSort(T[] arr, int low, int high, Comparator<? super T> comparator) {
+
+        for (int i = low + 1; i < high; i++) {
+            T element = arr[i];
+            int j = i - 1;
+            while (j >= low && comparator.compare(element, arr[j]) < 0) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = element;
+        }
+    }
+
+    /**
+     * Arrays this long or shorter are sorted with insertion sort by the <code> sort </code> entry points.
+     */
+    private static final int SMALL_SORT_THRESHOLD = 64;
+
+    /**
+     * Starting from this length <code> int </code> arrays are radix sorted,
+     * below it the four counting passes cost more than introsort.
+     */
+    private static final int RADIX_SORT_THRESHOLD = 1 << 12;
+
+    /**
+     * Adaptive merge sort is picked when the input consists of at most <code> length / PRESORTED_RUN_RATIO </code> runs.
+     */
+    private static final int PRESORTED_RUN_RATIO = 64;
+
+    /**
+     * Sorts <code> int </code> array with the engine that suits its length.
+     * Short arrays are insertion sorted, medium ones introsorted and long ones LSD radix sorted.
+     *
+     * @param arr array that will be sorted.
+     * @return sorted array.
+     */
+    public static int[] sort(int[] arr) {
+
+        if (arr.length <= SMALL_SORT_THRESHOLD)
+            insertionSort(arr, 0, arr.length);
+        else if (arr.length < RADIX_SORT_THRESHOLD)
+            introSort(arr);
+        else
+            radixSort(arr);
+
+        return arr;
+    }
+
+    /**
+     * Sorts array of strings with the engine that suits its length.
+     * Short arrays are insertion sorted, longer ones are sorted with 3-way string quicksort,
+     * which examines every character of the common prefixes only once - a good fit for dictionaries.
+     * The resulting order is the one of <code> String.compareTo </code>.
+     *
+     * @param arr array that will be sorted.
+     * @return sorted array.
+     */
+    public static String[] sort(String[] arr) {
+
+        if (arr.length <= SMALL_SORT_THRESHOLD)
+            insertionSort(arr, 0, arr.length, Comparator.naturalOrder());
+        else
+            stringSort(arr);
+
+        return arr;
+    }
+
+    /**
+     * Sorts array in the natural order, see {@link #sort(Object[], Comparator)}.
+     *
+     * @param arr array that will be sorted.
+     * @param <T> type of elements of the array. Has to implement Comparable<T>.
+     * @return sorted array.
+     */
+    public static <T extends Comparable<T>> T[] sort(T[] arr) {
+        return sort(arr, Comparator.naturalOrder());
+    }
+
+    /**
+     * Sorts array with the engine that suits its length and presortedness.
+     * Short arrays are insertion sorted, arrays made of a few long runs are sorted with the adaptive merge sort
+     * and everything else is introsorted. The sort is not guaranteed to be stable, use
+     * {@link #mergeSort(Object[], Comparator)} when it has to be.
+     *
+     * @param arr array that will be sorted.
+     * @param comparator defines the order of the elements.
+     * @param <T> type of elements of the array.
+     * @return sorted array.
+     */
+    public static <T> T[] sort(T[] arr, Comparator<? super T> comparator) {
+
+        if (arr.length <= SMALL_SORT_THRESHOLD)
+            insertionSort(arr, 0, arr.length, comparator);
+        else if (countRuns(arr, comparator, arr.length / PRESORTED_RUN_RATIO) <= arr.length / PRESORTED_RUN_RATIO)
+            adaptiveMergeSort(arr, comparator);
+        else
+            introSort(arr, comparator);
+
+        return arr;
+    }
+
+    /**
+     * Introsort algorithm n(log(n)) complexity in the worst case.
+     * Quicksort with median-of-three pivots that switches to heapsort once recursion gets deeper than 2*log(n),
+     * short ranges are finished with insertion sort. Sorts in place and is not stable.
+     *
+     * @param arr array that will be sorted.
+     * @param comparator defines the order of the elements.
+     * @param <T> type of elements of the array.
+     * @return sorted array.
+     */
+    public static <T> T[] introSort(T[] arr, Comparator<? super T> comparator) {
+        introSort(arr, 0, arr.length, depthLimit(arr.length), comparator);
+        return arr;
+    }
+
+    /**
+     * Introsort of an <code> int </code> array, see {@link #introSort(Object[], Comparator)}.
+     *
+     * @param arr array that will be sorted.
+     * @return sorted array.
+     */
+    public static int[] introSort(int[] arr) {
+        introSort(arr, 0, arr.length, depthLimit(arr.length));
+        return arr;
+    }
 
-        if (arr.length <= 1)
+    /**
+     * LSD radix sort of an <code> int </code> array, linear complexity.
+     * Sorts by one byte per pass, four passes at most, passes in which all values share the byte are skipped.
+     * The sign bit is flipped on the last pass so negative values come first.
+     * Allocates a single buffer of the array's length.
+     *
+     * @param arr array that will be sorted.
+     * @return sorted array.
+     */
+    public static int[] radixSort(int[] arr) {
+
+        if (arr.length < 2)
             return arr;
 
-        Comparable[] leftArr = new Comparable[arr.length/2];
-        Comparable[] rightArr = new Comparable[arr.length - leftArr.length];
+        int[] from = arr, to = new int[arr.length];
+        int[] count = new int[257];
+
+        for (int shift = 0; shift < 32; shift += 8) {
+
+            int flip = (shift == 24) ? 0x80 : 0;
+            Arrays.fill(count, 0);
+
+            for (int value : from)
+                count[(((value >>> shift) & 0xFF) ^ flip) + 1]++;
+
+            // All values share this byte - the pass wouldn't move anything.
+            if (count[(((from[0] >>> shift) & 0xFF) ^ flip) + 1] == from.length)
+                continue;
+
+            for (int i = 0; i < 256; i++)
+                count[i + 1] += count[i];
+
+            for (int value : from)
+                to[count[((value >>> shift) & 0xFF) ^ flip]++] = value;
 
-        for (int i = 0; i < arr.length ; i++) {
-            if (i < arr.length/2)
-                leftArr[i] = arr[i];
-            else rightArr[i - arr.length/2] = arr[i];
+            int[] swap = from;
+            from = to;
+            to = swap;
         }
 
-        mergeSort(leftArr);
-        mergeSort(rightArr);
+        if (from != arr)
+            System.arraycopy(from, 0, arr, 0, arr.length);
 
-        // Declaring pointers into each of the arrays
-        int i = 0, j = 0, k = 0;
+        return arr;
+    }
 
-        while (i < leftArr.length && j < rightArr.length){
+    /**
+     * 3-way string quicksort (multikey quicksort).
+     * Partitions strings by a single character at a time into less, equal and greater parts,
+     * only the equal part moves on to the next character, so common prefixes are compared only once.
+     * Sorts in place, the order is the one of <code> String.compareTo </code>.
+     *
+     * @param arr array that will be sorted.
+     * @return sorted array.
+     */
+    public static String[] stringSort(String[] arr) {
+        stringSort(arr, 0, arr.length - 1, 0);
+        return arr;
+    }
 
-            if (leftArr[i].compareTo(rightArr[j]) < 0 ) {
-                arr[k] = leftArr[i];
-                i++;
-            } else {
-                arr[k] = rightArr[j];
-                j++;
+    /**
+     * Adaptive (natural) merge sort, linear complexity on presorted input and n(log(n)) in the worst case.
+     * Detects ascending and strictly descending runs (the latter are reversed in place),
+     * extends runs shorter than <code> INSERTION_SORT_THRESHOLD </code> with insertion sort,
+     * then merges neighbouring runs pairwise until one run is left. Stable.
+     *
+     * @param arr array that will be sorted.
+     * @param comparator defines the order of the elements.
+     * @param <T> type of elements of the array.
+     * @return sorted array.
+     */
+    public static <T> T[] adaptiveMergeSort(T[] arr, Comparator<? super T> comparator) {
+
+        int length = arr.length;
+        if (length < 2)
+            return arr;
+
+        // Run boundaries: run i spans [runs[i], runs[i + 1]).
+        int[] runs = new int[length / INSERTION_SORT_THRESHOLD + 2];
+        int runCount = 0;
+        int start = 0;
+
+        while (start < length) {
+            int end = runEnd(arr, start, comparator);
+
+            if (end - start < INSERTION_SORT_THRESHOLD) {
+                int forced = Math.min(start + INSERTION_SORT_THRESHOLD, length);
+                insertionSort(arr, start, forced, comparator);
+                end = forced;
+            }
+
+            runs[runCount++] = start;
+            start = end;
+        }
+        runs[runCount] = length;
+
+        Object[] scratch = null;
+
+        while (runCount > 1) {
+            int merged = 0;
+            for (int i = 0; i < runCount; i += 2) {
+                if (i + 1 < runCount) {
+                    if (scratch == null) scratch = new Object[length];
+                    merge(arr, scratch, 0, runs[i], runs[i + 1], runs[i + 2], comparator);
+                }
+                runs[merged++] = runs[i];
             }
-            k++;
+            runs[merged] = length;
+            runCount = merged;
         }
+
         return arr;
     }
 
+    /**
+     * Counts runs the same way as <code> adaptiveMergeSort </code> detects them, stops once the limit is exceeded.
+     * @param arr array to inspect.
+     * @param comparator defines the order of the elements.
+     * @param limit number of runs after which counting stops.
+     * @param <T> type of elements of the array.
+     * @return number of runs, or <code> limit + 1 </code> if there are more than limit.
+     */
+    private static <T> int countRuns(T[] arr, Comparator<? super T> comparator, int limit) {
+
+        int runs = 0;
+        for (int i = 0; i < arr.length && runs <= limit; runs++) {
+            int end = i + 1;
+            if (end < arr.length && comparator.compare(arr[end], arr[i]) < 0) {
+                while (end < arr.length && comparator.compare(arr[end], arr[end - 1]) < 0) end++;
+            } else {
+                while (end < arr.length && comparator.compare(arr[end], arr[end - 1]) >= 0) end++;
+            }
+            i = end;
+        }
+        return runs;
+    }
+
+    /**
+     * Finds the end of the run that starts at the given index.
+     * A strictly descending run is reversed, so that the run is ascending afterwards.
+     * @param arr array that contains the run.
+     * @param start first index of the run.
+     * @param comparator defines the order of the elements.
+     * @param <T> type of elements of the array.
+     * @return index right after the end of the run.
+     */
+    private static <T> int runEnd(T[] arr, int start, Comparator<? super T> comparator) {
+
+        int end = start + 1;
+        if (end == arr.length)
+            return end;
+
+        if (comparator.compare(arr[end], arr[start]) < 0) {
+            while (end < arr.length && comparator.compare(arr[end], arr[end - 1]) < 0) end++;
+            for (int i = start, j = end - 1; i < j; i++, j--) {
+                T temp = arr[i];
+                arr[i] = arr[j];
+                arr[j] = temp;
+            }
+        } else {
+            while (end < arr.length && comparator.compare(arr[end], arr[end - 1]) >= 0) end++;
+        }
+        return end;
+    }
+
+    /**
+     * Maximum recursion depth of introsort before it switches to heapsort.
+     * @param length length of the array.
+     * @return 2*floor(log2(length)).
+     */
+    private static int depthLimit(int length) {
+        return 2 * (31 - Integer.numberOfLeadingZeros(Math.max(length, 1)));
+    }
+
+    /**
+     * Recursive introsort of the range of the array.
+     * Recurses into the smaller partition and loops on the bigger one, so the stack stays O(log(n)).
+     * @param arr array that contains the range.
+     * @param low first index of the range, inclusive.
+     * @param high last index of the range, exclusive.
+     * @param depth remaining recursion depth before switching to heapsort.
+     * @param comparator defines the order of the elements.
+     * @param <T> type of elements of the array.
+     */
+    private static <T> void introSort(T[] arr, int low, int high, int depth, Comparator<? super T> comparator) {
+
+        while (high - low > INSERTION_SORT_THRESHOLD) {
+
+            if (depth-- == 0) {
+                heapSort(arr, low, high, comparator);
+                return;
+            }
+
+            // Median of three is moved to low and used as the pivot.
+            int middle = (low + high) >>> 1;
+            sortThree(arr, low, middle, high - 1, comparator);
+            swap(arr, low, middle);
+            T pivot = arr[low];
+
+            // Hoare partition.
+            int i = low, j = high;
+            while (true) {
+                do i++; while (comparator.compare(arr[i], pivot) < 0);
+                do j--; while (comparator.compare(arr[j], pivot) > 0);
+                if (i >= j) break;
+                swap(arr, i, j);
+            }
+            swap(arr, low, j);
+
+            if (j - low < high - j - 1) {
+                introSort(arr, low, j, depth, comparator);
+                low = j + 1;
+            } else {
+                introSort(arr, j + 1, high, depth, comparator);
+                high = j;
+            }
+        }
+
+        insertionSort(arr, low, high, comparator);
+    }
+
+    /**
+     * Orders three elements of the array, so the median ends up in the middle position.
+     * @param arr array that contains the elements.
+     * @param a index of the first element.
+     * @param b index of the second element.
+     * @param c index of the third element.
+     * @param comparator defines the order of the elements.
+     * @param <T> type of elements of the array.
+     */
+    private static <T> void sortThree(T[] arr, int a, int b, int c, Comparator<? super T> comparator) {
+        if (comparator.compare(arr[b], arr[a]) < 0) swap(arr, a, b);
+        if (comparator.compare(arr[c], arr[b]) < 0) {
+            swap(arr, b, c);
+            if (comparator.compare(arr[b], arr[a]) < 0) swap(arr, a, b);
+        }
+    }
+
+    /**
+     * Heapsort of the range of the array, n(log(n)) complexity.
+     * @param arr array that contains the range.
+     * @param low first index of the range, inclusive.
+     * @param high last index of the range, exclusive.
+     * @param comparator defines the order of the elements.
+     * @param <T> type of elements of the array.
+     */
+    private static <T> void heapSort(T[] arr, int low, int high, Comparator<? super T> comparator) {
+
+        int length = high - low;
+        for (int i = length / 2 - 1; i >= 0; i--)
+            siftDown(arr, low, i, length, comparator);
+
+        for (int end = length - 1; end > 0; end--) {
+            swap(arr, low, low + end);
+            siftDown(arr, low, 0, end, comparator);
+        }
+    }
+
+    /**
+     * Restores max-heap property for the subtree rooted at the given node.
+     * @param arr array that contains the heap.
+     * @param offset index of the heap's root in the array.
+     * @param node heap index of the node to sift down.
+     * @param length number of elements in the heap.
+     * @param comparator defines the order of the elements.
+     * @param <T> type of elements of the array.
+     */
+    private static <T> void siftDown(T[] arr, int offset, int node, int length, Comparator<? super T> comparator) {
+
+        T element = arr[offset + node];
+        int child;
+        while ((child = 2 * node + 1) < length) {
+            if (child + 1 < length && comparator.compare(arr[offset + child + 1], arr[offset + child]) > 0)
+                child++;
+            if (comparator.compare(arr[offset + child], element) <= 0)
+                break;
+            arr[offset + node] = arr[offset + child];
+            node = child;
+        }
+        arr[offset + node] = element;
+    }
+
+    /**
+     * Swaps two elements of the array.
+     * @param arr array that contains the elements.
+     * @param i index of the first element.
+     * @param j index of the second element.
+     * @param <T> type of elements of the array.
+     */
+    private static <T> void swap(T[] arr, int i, int j) {
+        T temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    /**
+     * Recursive introsort of the range of an <code> int </code> array,
+     * see {@link #introSort(Object[], int, int, int, Comparator)}.
+     * @param arr array that contains the range.
+     * @param low first index of the range, inclusive.
+     * @param high last index of the range, exclusive.
+     * @param depth remaining recursion depth before switching to heapsort.
+     */
+    private static void introSort(int[] arr, int low, int high, int depth) {
+
+        while (high - low > INSERTION_SORT_THRESHOLD) {
+
+            if (depth-- == 0) {
+                heapSort(arr, low, high);
+                return;
+            }
+
+            int middle = (low + high) >>> 1;
+            sortThree(arr, low, middle, high - 1);
+            swap(arr, low, middle);
+            int pivot = arr[low];
+
+            int i = low, j = high;
+            while (true) {
+                do i++; while (arr[i] < pivot);
+                do j--; while (arr[j] > pivot);
+                if (i >= j) break;
+                swap(arr, i, j);
+            }
+            swap(arr, low, j);
+
+            if (j - low < high - j - 1) {
+                introSort(arr, low, j, depth);
+                low = j + 1;
+            } else {
+                introSort(arr, j + 1, high, depth);
+                high = j;
+            }
+        }
+
+        insertionSort(arr, low, high);
+    }
+
+    /**
+     * Orders three values of the array, so the median ends up in the middle position.
+     * @param arr array that contains the values.
+     * @param a index of the first value.
+     * @param b index of the second value.
+     * @param c index of the third value.
+     */
+    private static void sortThree(int[] arr, int a, int b, int c) {
+        if (arr[b] < arr[a]) swap(arr, a, b);
+        if (arr[c] < arr[b]) {
+            swap(arr, b, c);
+            if (arr[b] < arr[a]) swap(arr, a, b);
+        }
+    }
+
+    /**
+     * Heapsort of the range of an <code> int </code> array.
+     * @param arr array that contains the range.
+     * @param low first index of the range, inclusive.
+     * @param high last index of the range, exclusive.
+     */
+    private static void heapSort(int[] arr, int low, int high) {
+
+        int length = high - low;
+        for (int i = length / 2 - 1; i >= 0; i--)
+            siftDown(arr, low, i, length);
+
+        for (int end = length - 1; end > 0; end--) {
+            swap(arr, low, low + end);
+            siftDown(arr, low, 0, end);
+        }
+    }
+
+    /**
+     * Restores max-heap property for the subtree rooted at the given node.
+     * @param arr array that contains the heap.
+     * @param offset index of the heap's root in the array.
+     * @param node heap index of the node to sift down.
+     * @param length number of values in the heap.
+     */
+    private static void siftDown(int[] arr, int offset, int node, int length) {
+
+        int value = arr[offset + node];
+        int child;
+        while ((child = 2 * node + 1) < length) {
+            if (child + 1 < length && arr[offset + child + 1] > arr[offset + child])
+                child++;
+            if (arr[offset + child] <= value)
+                break;
+            arr[offset + node] = arr[offset + child];
+            node = child;
+        }
+        arr[offset + node] = value;
+    }
+
+    /**
+     * Insertion sort of the range of an <code> int </code> array.
+     * @param arr array that contains the range.
+     * @param low first index of the range, inclusive.
+     * @param high last index of the range, exclusive.
+     */
+    private static void insertionSort(int[] arr, int low, int high) {
+
+        for (int i = low + 1; i < high; i++) {
+            int value = arr[i];
+            int j = i - 1;
+            while (j >= low && value < arr[j]) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = value;
+        }
+    }
+
+    /**
+     * Swaps two values of the array.
+     * @param arr array that contains the values.
+     * @param i index of the first value.
+     * @param j index of the second value.
+     */
+    private static void swap(int[] arr, int i, int j) {
+        int temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    /**
+     * Recursive 3-way string quicksort of the range of the array.
+     * All strings in the range share their first <code> depth </code> characters.
+     * @param arr array that contains the range.
+     * @param low first index of the range, inclusive.
+     * @param high last index of the range, inclusive.
+     * @param depth index of the character strings are partitioned by.
+     */
+    private static void stringSort(String[] arr, int low, int high, int depth) {
+
+        while (high - low >= INSERTION_SORT_THRESHOLD) {
+
+            // Middle element is a good pivot for both random and presorted input.
+            swap(arr, low, (low + high) >>> 1);
+            int pivot = charAt(arr[low], depth);
+
+            int lt = low, gt = high, i = low + 1;
+            while (i <= gt) {
+                int c = charAt(arr[i], depth);
+                if (c < pivot)      swap(arr, lt++, i++);
+                else if (c > pivot) swap(arr, i, gt--);
+                else                i++;
+            }
+
+            stringSort(arr, low, lt - 1, depth);
+            stringSort(arr, gt + 1, high, depth);
+
+            // Strings equal to the pivot have ended - the equal part is sorted.
+            if (pivot < 0)
+                return;
+
+            low = lt;
+            high = gt;
+            depth++;
+        }
+
+        insertionSort(arr, low, high + 1, depth);
+    }
+
+    /**
+     * Insertion sort of the range of strings that share their first <code> depth </code> characters.
+     * @param arr array that contains the range.
+     * @param low first index of the range, inclusive.
+     * @param high last index of the range, exclusive.
+     * @param depth length of the common prefix, it is skipped by comparisons.
+     */
+    private static void insertionSort(String[] arr, int low, int high, int depth) {
+
+        for (int i = low + 1; i < high; i++) {
+            String element = arr[i];
+            int j = i - 1;
+            while (j >= low && compareFrom(element, arr[j], depth) < 0) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = element;
+        }
+    }
+
+    /**
+     * Compares two strings starting from the given character.
+     * @param a first string.
+     * @param b second string.
+     * @param depth index of the first character to compare.
+     * @return negative, zero or positive value as <code> String.compareTo </code> does.
+     */
+    private static int compareFrom(String a, String b, int depth) {
+        int length = Math.min(a.length(), b.length());
+        for (int i = depth; i < length; i++) {
+            char x = a.charAt(i), y = b.charAt(i);
+            if (x != y) return x - y;
+        }
+        return a.length() - b.length();
+    }
+
+    /**
+     * Returns character at the given index, or -1 once the string has ended.
+     * @param s string to read.
+     * @param index index of the character.
+     * @return character at the index, or -1 if index equals string's length.
+     */
+    private static int charAt(String s, int index) {
+        return (index < s.length()) ? s.charAt(index) : -1;
+    }
+
+    /**
+     * Fork/join task that merge-sorts range of the array.
+     * Each task owns the same range of the full-length scratch buffer, so sibling tasks never share scratch space.
+     * @param <T> type of elements of the array.
+     */
+    private static final class MergeSortTask<T> extends RecursiveAction {
+
+        /**
+         * Used during deserialization to confirm that objects are compatible.
+         * @value 1L
+         */
+        public static final long serialVersionUID = 1L;
+
+        private final T[] arr;
+        private final Object[] scratch;
+        private final int low, high;
+        private final Comparator<? super T> comparator;
+
+        MergeSortTask(T[] arr, Object[] scratch, int low, int high, Comparator<? super T> comparator) {
+            this.arr = arr;
+            this.scratch = scratch;
+            this.low = low;
+            this.high = high;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (high - low <= PARALLEL_SORT_THRESHOLD) {
+                sequential(low, high);
+                return;
+            }
+
+            int middle = (low + high) >>> 1;
+            invokeAll(new MergeSortTask<>(arr, scratch, low, middle, comparator),
+                      new MergeSortTask<>(arr, scratch, middle, high, comparator));
+            merge(arr, scratch, low, low, middle, high, comparator);
+        }
+
+        /**
+         * Sequential merge sort that uses this task's own range of the scratch buffer.
+         * @param from first index of the range, inclusive.
+         * @param to last index of the range, exclusive.
+         */
+        private void sequential(int from, int to) {
+
+            if (to - from <= INSERTION_SORT_THRESHOLD) {
+                insertionSort(arr, from, to, comparator);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            sequential(from, middle);
+            sequential(middle, to);
+            merge(arr, scratch, from, from, middle, to, comparator);
+        }
+    }
+
 }
 
@@ -0,0 +1,437 @@
+package algorithms;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * External merge sort of word files that don't fit into the heap.
+ *
+ * The input is read in chunks that fit into the memory budget, every chunk is sorted with
+ * {@link Algorithms#sort(String[])} and written to a temporary run file.
+ * Runs are then merged with a k-way merge driven by a heap of run cursors,
+ * at most <code> MAX_FAN_IN </code> runs at a time, so the number of open files stays bounded.
+ *
+ * The last merge is lazy - {@link #open(Path)} returns an iterator over the sorted words,
+ * which can be fed straight into a dictionary without materializing the sorted file:
+ * <pre>
+ *     try (ExternalSort.SortedWords words = new ExternalSort().open(path)) {
+ *         AutoCompleteDictionaryTrie trie = new AutoCompleteDictionaryTrie(words);
+ *     }
+ * </pre>
+ * Files are read and written as UTF-8 through buffered NIO channels, one word per line, blank lines are skipped.
+ *
+ * @author Anton Hrytsyk
+ */
+public final class ExternalSort {
+
+    /**
+     * Memory budget used unless specified otherwise: an eighth of the maximum heap.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = Runtime.getRuntime().maxMemory() / 8;
+
+    /**
+     * Maximum number of runs merged at once.
+     */
+    private static final int MAX_FAN_IN = 64;
+
+    /**
+     * Size of the channel buffers, in bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Rough heap footprint of a String apart from its characters: header, fields, array header and the reference to it.
+     */
+    private static final int STRING_OVERHEAD = 64;
+
+    /**
+     * Number of bytes chunk's words may take on the heap.
+     */
+    private final long memoryBudget;
+
+    /**
+     * Whether duplicate words are dropped.
+     */
+    private final boolean deduplicate;
+
+    /**
+     * Directory for the run files.
+     */
+    private final Path tempDirectory;
+
+
+    /**
+     * Creates a sorter with the default memory budget that keeps duplicates.
+     */
+    public ExternalSort() {
+        this(DEFAULT_MEMORY_BUDGET, false);
+    }
+
+    /**
+     * Creates a sorter that keeps run files in the default temporary directory.
+     * @param memoryBudget number of bytes chunk's words may take on the heap.
+     * @param deduplicate  <code> true </code> if duplicate words should be dropped.
+     */
+    public ExternalSort(long memoryBudget, boolean deduplicate) {
+        this(memoryBudget, deduplicate, Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Creates a sorter.
+     *
+     * @throws IllegalArgumentException if memory budget isn't positive.
+     * @param memoryBudget  number of bytes chunk's words may take on the heap.
+     * @param deduplicate   <code> true </code> if duplicate words should be dropped.
+     * @param tempDirectory directory for the run files.
+     */
+    public ExternalSort(long memoryBudget, boolean deduplicate, Path tempDirectory) {
+
+        if (memoryBudget <= 0)
+            throw new IllegalArgumentException("memory budget has to be positive");
+
+        this.memoryBudget = memoryBudget;
+        this.deduplicate = deduplicate;
+        this.tempDirectory = tempDirectory;
+    }
+
+
+    /**
+     * Sorts the input file into the output file.
+     * @param input  file with one word per line.
+     * @param output file the sorted words are written to, it is overwritten if it exists.
+     * @throws IOException if reading or writing fails.
+     */
+    public void sort(Path input, Path output) throws IOException {
+
+        try (SortedWords words = open(input);
+             BufferedWriter writer = newWriter(output)) {
+
+            while (words.hasNext()) {
+                writer.write(words.next());
+                writer.newLine();
+            }
+        }
+    }
+
+
+    /**
+     * Sorts the input file and returns the sorted words as a stream.
+     * All run files are written before this method returns, the final merge happens while iterating.
+     * The returned object has to be closed, closing it removes the run files.
+     *
+     * @param input file with one word per line.
+     * @return iterator over the sorted words.
+     * @throws IOException if reading the input or writing the runs fails.
+     */
+    public SortedWords open(Path input) throws IOException {
+
+        List<Path> runs = new ArrayList<>();
+        List<Path> merged = new ArrayList<>();
+
+        try {
+            createRuns(input, runs);
+
+            while (runs.size() > MAX_FAN_IN) {
+                merged = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += MAX_FAN_IN) {
+                    List<Path> group = runs.subList(i, Math.min(i + MAX_FAN_IN, runs.size()));
+                    merged.add(mergeIntoRun(group));
+                }
+                runs = merged;
+            }
+
+            return new SortedWords(runs, deduplicate);
+
+        } catch (IOException | RuntimeException e) {
+            deleteAll(runs);
+            deleteAll(merged);
+            throw e;
+        }
+    }
+
+
+    /**
+     * Splits the input into sorted run files.
+     * @param input file with one word per line.
+     * @param runs  list the paths of the created runs are added to.
+     * @throws IOException if reading the input or writing the runs fails.
+     */
+    private void createRuns(Path input, List<Path> runs) throws IOException {
+
+        try (BufferedReader reader = newReader(input)) {
+
+            List<String> chunk = new ArrayList<>();
+            long chunkBytes = 0;
+            String word;
+
+            while ((word = reader.readLine()) != null) {
+
+                if (word.isEmpty()) continue;
+
+                chunk.add(word);
+                chunkBytes += STRING_OVERHEAD + 2L * word.length();
+
+                if (chunkBytes >= memoryBudget) {
+                    runs.add(writeRun(chunk));
+                    chunk.clear();
+                    chunkBytes = 0;
+                }
+            }
+
+            if (!chunk.isEmpty() || runs.isEmpty())
+                runs.add(writeRun(chunk));
+        }
+    }
+
+
+    /**
+     * Sorts the chunk and writes it into a new run file.
+     * @param chunk words of the chunk.
+     * @return path of the run file.
+     * @throws IOException if writing fails.
+     */
+    private Path writeRun(List<String> chunk) throws IOException {
+
+        String[] words = Algorithms.sort(chunk.toArray(new String[0]));
+        Path run = Files.createTempFile(tempDirectory, "run", ".txt");
+
+        try (BufferedWriter writer = newWriter(run)) {
+            for (int i = 0; i < words.length; i++) {
+                if (deduplicate && i > 0 && words[i].equals(words[i - 1])) continue;
+                writer.write(words[i]);
+                writer.newLine();
+            }
+        } catch (IOException | RuntimeException e) {
+            // The run isn't known to the caller yet, so nobody else would delete it.
+            Files.deleteIfExists(run);
+            throw e;
+        }
+
+        return run;
+    }
+
+
+    /**
+     * Merges a group of runs into a single run, the merged runs are deleted.
+     * @param group runs to merge.
+     * @return path of the merged run.
+     * @throws IOException if reading or writing fails.
+     */
+    private Path mergeIntoRun(List<Path> group) throws IOException {
+
+        Path run = Files.createTempFile(tempDirectory, "run", ".txt");
+
+        try (SortedWords words = new SortedWords(new ArrayList<>(group), deduplicate);
+             BufferedWriter writer = newWriter(run)) {
+
+            while (words.hasNext()) {
+                writer.write(words.next());
+                writer.newLine();
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(run);
+            throw e;
+        }
+
+        return run;
+    }
+
+
+    /**
+     * Opens a buffered UTF-8 reader over a file channel.
+     * @param path file to read.
+     * @return reader.
+     * @throws IOException if the file can't be opened.
+     */
+    private static BufferedReader newReader(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        return new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), BUFFER_SIZE), BUFFER_SIZE);
+    }
+
+
+    /**
+     * Opens a buffered UTF-8 writer over a file channel, truncating the file.
+     * @param path file to write.
+     * @return writer.
+     * @throws IOException if the file can't be opened.
+     */
+    private static BufferedWriter newWriter(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        return new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE), BUFFER_SIZE);
+    }
+
+
+    /**
+     * Deletes the files, ignoring failures.
+     * @param paths files to delete.
+     */
+    private static void deleteAll(List<Path> paths) {
+        for (Path path : paths) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ignored) {
+                // Leftover temporary file is not worth failing for.
+            }
+        }
+    }
+
+
+    /**
+     * Lazy k-way merge of sorted run files.
+     * A heap keeps one cursor per run ordered by the cursor's current word.
+     * Closing the object closes and deletes all runs.
+     * @author Anton Hrytsyk
+     */
+    public static final class SortedWords implements Iterator<String>, Closeable {
+
+        /**
+         * Cursors of the runs that still have words.
+         */
+        private final PriorityQueue<Run> heap;
+
+        /**
+         * All runs, kept for closing.
+         */
+        private final List<Run> runs;
+
+        /**
+         * Paths of the run files, deleted on close.
+         */
+        private final List<Path> paths;
+
+        /**
+         * Whether duplicate words are dropped.
+         */
+        private final boolean deduplicate;
+
+        /**
+         * Word returned last, used for deduplication.
+         */
+        private String last;
+
+        /**
+         * Opens all runs and fills the heap.
+         * @param paths       run files.
+         * @param deduplicate <code> true </code> if duplicate words should be dropped.
+         * @throws IOException if a run can't be opened.
+         */
+        private SortedWords(List<Path> paths, boolean deduplicate) throws IOException {
+
+            this.paths = paths;
+            this.deduplicate = deduplicate;
+            this.runs = new ArrayList<>(paths.size());
+            this.heap = new PriorityQueue<>(Math.max(paths.size(), 1));
+
+            try {
+                for (Path path : paths) {
+                    Run run = new Run(newReader(path));
+                    runs.add(run);
+                    advance(run);
+                }
+            } catch (IOException | RuntimeException e) {
+                close();
+                throw e;
+            }
+
+            skipDuplicates();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heap.isEmpty();
+        }
+
+        /**
+         * Returns the next word in the sorted order.
+         * @throws UncheckedIOException if reading a run fails.
+         * @return next word.
+         */
+        @Override
+        public String next() {
+
+            if (heap.isEmpty())
+                throw new NoSuchElementException();
+
+            Run run = heap.remove();
+            String word = run.current;
+            advance(run);
+
+            last = word;
+            skipDuplicates();
+            return word;
+        }
+
+        /**
+         * Closes all runs and deletes their files.
+         */
+        @Override
+        public void close() {
+            for (Run run : runs) {
+                try {
+                    run.reader.close();
+                } catch (IOException ignored) {
+                    // Nothing useful can be done, the file is deleted below anyway.
+                }
+            }
+            heap.clear();
+            deleteAll(paths);
+        }
+
+        /**
+         * Moves the run to its next word and returns it to the heap if it has one.
+         * @param run run to advance.
+         */
+        private void advance(Run run) {
+            try {
+                run.current = run.reader.readLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (run.current != null) heap.add(run);
+        }
+
+        /**
+         * Drops words at the top of the heap that are equal to the last returned word.
+         */
+        private void skipDuplicates() {
+            if (!deduplicate) return;
+            while (!heap.isEmpty() && heap.peek().current.equals(last))
+                advance(heap.remove());
+        }
+
+        /**
+         * Cursor over a single run file.
+         */
+        private static final class Run implements Comparable<Run> {
+
+            final BufferedReader reader;
+            String current;
+
+            Run(BufferedReader reader) {
+                this.reader = reader;
+            }
+
+            @Override
+            public int compareTo(Run other) {
+                return current.compareTo(other.current);
+            }
+        }
+    }
+
+}
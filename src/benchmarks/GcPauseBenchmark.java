@@ -0,0 +1,200 @@
+package benchmarks;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import dataStructures.AutoCompleteDictionaryTrie;
+import dataStructures.LatencyHistogram;
+import dataStructures.OffHeapTrie;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+/**
+ * Compares garbage collection pauses with the dictionary on the heap and off the heap.
+ *
+ * Loads several copies of the dictionary, standing in for one large dictionary, either as AutoCompleteDictionaryTrie
+ * or as OffHeapTrie. One thread then queries them while the main thread churns through medium-lived garbage, which
+ * keeps promoting objects and forces old generation collections. Finally a few full collections are timed,
+ * their cost is dominated by tracing the live object graph.
+ *
+ * Run each mode in its own JVM with the same heap settings, e.g.
+ * <pre>
+ *     java -Xmx1g -cp core/target/classes benchmarks.GcPauseBenchmark heap 8 20
+ *     java -Xmx1g -cp core/target/classes benchmarks.GcPauseBenchmark offheap 8 20
+ * </pre>
+ * Arguments are the mode, the number of dictionary copies and the measured duration in seconds.
+ *
+ * @author Anton Hrytsyk
+ */
+public final class GcPauseBenchmark {
+
+    /**
+     * Size of the ring of retained garbage, in bytes.
+     */
+    private static final int RETAINED_BYTES = 64 << 20;
+
+    /**
+     * Size of a single garbage object, in bytes.
+     */
+    private static final int CHUNK_BYTES = 4 << 10;
+
+    /**
+     * Number of timed full collections.
+     */
+    private static final int FULL_COLLECTIONS = 3;
+
+    /**
+     * Pauses reported by the collectors, in microseconds.
+     */
+    private static final LatencyHistogram PAUSES = new LatencyHistogram();
+
+
+    public static void main(String[] args) throws Exception {
+
+        boolean offHeap = args.length > 0 && args[0].equals("offheap");
+        int copies = (args.length > 1) ? Integer.parseInt(args[1]) : 8;
+        int seconds = (args.length > 2) ? Integer.parseInt(args[2]) : 20;
+
+        List<String> words = new ArrayList<>();
+        for (String word : Files.readAllLines(Paths.get("src/data/dictionary.txt"), StandardCharsets.UTF_8))
+            if (!word.isEmpty()) words.add(word.toLowerCase());
+
+        // Queries go through a function, so both modes run the same loop.
+        List<Object> tries = new ArrayList<>();
+        BiFunction<Object, String, Integer> complete;
+        long start = System.nanoTime();
+
+        for (int i = 0; i < copies; i++) {
+            AutoCompleteDictionaryTrie trie = new AutoCompleteDictionaryTrie(words.iterator());
+            tries.add(offHeap ? new OffHeapTrie(trie) : trie);
+        }
+        if (offHeap) complete = (trie, prefix) -> ((OffHeapTrie) trie).produceCompletions(prefix, 10).size();
+        else         complete = (trie, prefix) -> ((AutoCompleteDictionaryTrie) trie).produceCompletions(prefix, 10).size();
+
+        System.gc();
+        System.out.printf("Mode: %s, %d copies of %d words, built in %.0f ms, live heap after build: %d MB%n",
+                offHeap ? "off-heap" : "heap", copies, words.size(), (System.nanoTime() - start) / 1e6, usedHeap() >> 20);
+
+        listenToCollections();
+
+        LatencyHistogram latency = new LatencyHistogram();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+        Thread queries = new Thread(() -> {
+            Random random = new Random(42);
+            long sink = 0;
+            while (System.nanoTime() < deadline) {
+                String word = words.get(random.nextInt(words.size()));
+                String prefix = word.substring(0, Math.min(word.length(), 1 + random.nextInt(3)));
+                Object trie = tries.get(random.nextInt(tries.size()));
+                long begin = System.nanoTime();
+                sink += complete.apply(trie, prefix);
+                latency.record(System.nanoTime() - begin);
+            }
+            Timer.sink = sink;
+        }, "queries");
+
+        long collectionsBefore = collectionCount(), collectionMillisBefore = collectionMillis();
+        queries.start();
+        churn(deadline);
+        queries.join();
+        long collections = collectionCount() - collectionsBefore;
+        long collectionMillis = collectionMillis() - collectionMillisBefore;
+
+        System.out.printf("Collections: %d, total %d ms; pauses ms: p50=%.1f p99=%.1f max=%.1f%n",
+                collections, collectionMillis,
+                PAUSES.percentile(50) / 1e3, PAUSES.percentile(99) / 1e3, PAUSES.max() / 1e3);
+        System.out.printf("Query latency us: p50=%.1f p99=%.1f p99.9=%.1f max=%.1f (%d queries)%n",
+                latency.percentile(50) / 1e3, latency.percentile(99) / 1e3, latency.percentile(99.9) / 1e3,
+                latency.max() / 1e3, latency.count());
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < FULL_COLLECTIONS; i++) {
+            long begin = System.nanoTime();
+            System.gc();
+            best = Math.min(best, System.nanoTime() - begin);
+        }
+        System.out.printf("Full collection: %.1f ms%n", best / 1e6);
+
+        Timer.sink += tries.size();
+    }
+
+
+    /**
+     * Allocates garbage until the deadline, keeping the most recent part of it alive.
+     * @param deadline value of <code> System.nanoTime() </code> to stop at.
+     */
+    private static void churn(long deadline) {
+
+        byte[][] retained = new byte[RETAINED_BYTES / CHUNK_BYTES][];
+        Random random = new Random(7);
+        int next = 0;
+
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < 1024; i++) {
+                byte[] chunk = new byte[CHUNK_BYTES];
+                chunk[random.nextInt(CHUNK_BYTES)] = 1;
+                retained[next] = chunk;
+                next = (next + 1) % retained.length;
+            }
+        }
+    }
+
+
+    /**
+     * Records the duration of every collection into the pause histogram.
+     */
+    private static void listenToCollections() {
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ((NotificationEmitter) collector).addNotificationListener((notification, handback) -> {
+                if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION))
+                    return;
+                GarbageCollectionNotificationInfo info =
+                        GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                PAUSES.record(info.getGcInfo().getDuration() * 1000);
+            }, null, null);
+        }
+    }
+
+
+    /**
+     * Sums collection counts of all collectors.
+     * @return number of collections so far.
+     */
+    private static long collectionCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans())
+            count += Math.max(0, collector.getCollectionCount());
+        return count;
+    }
+
+
+    /**
+     * Sums collection times of all collectors.
+     * @return milliseconds spent collecting so far.
+     */
+    private static long collectionMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans())
+            millis += Math.max(0, collector.getCollectionTime());
+        return millis;
+    }
+
+
+    /**
+     * Returns the used heap.
+     * @return used heap in bytes.
+     */
+    private static long usedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+}
@@ -0,0 +1,85 @@
+package benchmarks;
+
+import dataStructures.DoublyLinkedList;
+import dataStructures.UnrolledLinkedList;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.function.Supplier;
+
+/**
+ * Compares list implementations on appends, iteration, sequential indexed access and middle insertion.
+ *
+ * @author Anton Hrytsyk
+ */
+public final class ListBenchmark {
+
+    /**
+     * Number of elements in every list.
+     */
+    private static final int SIZE = 200_000;
+
+    /**
+     * Number of elements inserted in the middle of the list.
+     */
+    private static final int MIDDLE_INSERTS = 2_000;
+
+    public static void main(String[] args) {
+
+        run("DoublyLinkedList", DoublyLinkedList::new, true);
+        run("UnrolledLinkedList", UnrolledLinkedList::new, true);
+        // java.util.LinkedList walks from an end on every get, sequential get would take minutes.
+        run("LinkedList", LinkedList::new, false);
+        run("ArrayList", ArrayList::new, true);
+
+    }
+
+    /**
+     * Runs all scenarios against a single list implementation.
+     * @param name    name of the implementation.
+     * @param factory creates empty lists.
+     * @param indexed whether sequential indexed access should be measured.
+     */
+    private static void run(String name, Supplier<List<Integer>> factory, boolean indexed) {
+
+        List<Integer> filled = fill(factory.get());
+
+        Timer.measure(name + " append", () -> fill(factory.get()).size());
+
+        Timer.measure(name + " iterate", () -> {
+            long sum = 0;
+            for (int value : filled) sum += value;
+            return sum;
+        });
+
+        if (indexed) {
+            Timer.measure(name + " sequential get", () -> {
+                long sum = 0;
+                for (int i = 0; i < filled.size(); i++) sum += filled.get(i);
+                return sum;
+            });
+        }
+
+        Timer.measure(name + " insert in the middle", () -> {
+            List<Integer> list = fill(factory.get());
+            ListIterator<Integer> iterator = list.listIterator(list.size() / 2);
+            for (int i = 0; i < MIDDLE_INSERTS; i++) iterator.add(i);
+            return list.size();
+        });
+
+        System.out.println();
+    }
+
+    /**
+     * Appends <code> SIZE </code> elements to the list.
+     * @param list list to fill.
+     * @return the same list.
+     */
+    private static List<Integer> fill(List<Integer> list) {
+        for (int i = 0; i < SIZE; i++) list.add(i);
+        return list;
+    }
+
+}
@@ -0,0 +1,150 @@
+package benchmarks;
+
+import dataStructures.BinarySearchTree;
+import dataStructures.CharToObjectMap;
+import dataStructures.DoublyLinkedList;
+import dataStructures.IntBinarySearchTree;
+import dataStructures.IntList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compares boxed collections with their primitive-specialized counterparts.
+ * Every line reports time of the best run and bytes that run allocated.
+ *
+ * @author Anton Hrytsyk
+ */
+public final class PrimitiveCollectionsBenchmark {
+
+    /**
+     * Number of keys inserted into the trees and lists.
+     */
+    private static final int SIZE = 200_000;
+
+    /**
+     * Number of child lookups performed on the char maps.
+     */
+    private static final int LOOKUPS = 1_000_000;
+
+    public static void main(String[] args) {
+
+        int[] keys = new Random(42).ints(SIZE).toArray();
+
+        trees(keys);
+        lists(keys);
+        charMaps();
+
+    }
+
+    /**
+     * BinarySearchTree&lt;Integer&gt; against IntBinarySearchTree.
+     * @param keys random keys to insert and look up.
+     */
+    private static void trees(int[] keys) {
+
+        Timer.measure("BinarySearchTree<Integer> insert", () -> {
+            BinarySearchTree<Integer> tree = new BinarySearchTree<>();
+            for (int key : keys) tree.insert(key);
+            return keys.length;
+        });
+
+        Timer.measure("IntBinarySearchTree insert", () -> {
+            IntBinarySearchTree tree = new IntBinarySearchTree();
+            for (int key : keys) tree.insert(key);
+            return tree.size();
+        });
+
+        BinarySearchTree<Integer> boxed = new BinarySearchTree<>();
+        IntBinarySearchTree primitive = new IntBinarySearchTree();
+        for (int key : keys) {
+            boxed.insert(key);
+            primitive.insert(key);
+        }
+
+        Timer.measure("BinarySearchTree<Integer> contains", () -> {
+            long found = 0;
+            for (int key : keys) if (boxed.contains(key + 1)) found++;
+            return found;
+        });
+
+        Timer.measure("IntBinarySearchTree contains", () -> {
+            long found = 0;
+            for (int key : keys) if (primitive.contains(key + 1)) found++;
+            return found;
+        });
+
+        System.out.println();
+    }
+
+    /**
+     * DoublyLinkedList&lt;Integer&gt; and ArrayList&lt;Integer&gt; against IntList.
+     * @param keys values to append and sum up.
+     */
+    private static void lists(int[] keys) {
+
+        Timer.measure("DoublyLinkedList<Integer> append + sum", () -> sum(keys, new DoublyLinkedList<>()));
+        Timer.measure("ArrayList<Integer> append + sum", () -> sum(keys, new ArrayList<>()));
+
+        Timer.measure("IntList append + sum", () -> {
+            IntList list = new IntList();
+            for (int key : keys) list.add(key);
+            long sum = 0;
+            for (int i = 0; i < list.size(); i++) sum += list.get(i);
+            return sum;
+        });
+
+        System.out.println();
+    }
+
+    /**
+     * Appends values to a boxed list and sums them up.
+     * @param keys values to append.
+     * @param list empty list.
+     * @return sum of the values.
+     */
+    private static long sum(int[] keys, List<Integer> list) {
+        for (int key : keys) list.add(key);
+        long sum = 0;
+        for (int value : list) sum += value;
+        return sum;
+    }
+
+    /**
+     * HashMap&lt;Character, Object&gt; against CharToObjectMap on trie-like nodes with a few children.
+     */
+    private static void charMaps() {
+
+        String children = "aeilnorst";
+        Map<Character, Object> boxed = new HashMap<>();
+        CharToObjectMap<Object> primitive = new CharToObjectMap<>();
+        for (char c : children.toCharArray()) {
+            boxed.put(c, c);
+            primitive.put(c, c);
+        }
+
+        // Mostly hits, plus some misses above 127 where Character.valueOf has to allocate.
+        char[] queries = new char[LOOKUPS];
+        Random random = new Random(7);
+        for (int i = 0; i < LOOKUPS; i++)
+            queries[i] = (random.nextInt(10) == 0) ? (char) ('\u00e0' + random.nextInt(20)) : children.charAt(random.nextInt(children.length()));
+
+        Timer.measure("HashMap<Character, Object> get", () -> {
+            long found = 0;
+            for (char c : queries) if (boxed.get(c) != null) found++;
+            return found;
+        });
+
+        Timer.measure("CharToObjectMap get", () -> {
+            long found = 0;
+            for (char c : queries) if (primitive.get(c) != null) found++;
+            return found;
+        });
+
+        System.out.println();
+    }
+
+}
@@ -0,0 +1,91 @@
+package benchmarks;
+
+import algorithms.Algorithms;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares sorting engines of Algorithms with Arrays.sort and Arrays.parallelSort:
+ * merge sorts on 10 million boxed integers, radix sort on 10 million ints
+ * and string sort on the shuffled default dictionary.
+ * Every run sorts a fresh copy of the same input, copying time is included for all contenders.
+ *
+ * @author Anton Hrytsyk
+ */
+public final class SortBenchmark {
+
+    /**
+     * Number of elements to sort.
+     */
+    private static final int SIZE = 10_000_000;
+
+    public static void main(String[] args) throws IOException {
+
+        Integer[] input = new Random(42).ints(SIZE).boxed().toArray(Integer[]::new);
+        Comparator<Integer> order = Comparator.naturalOrder();
+
+        System.out.println("Cores: " + Runtime.getRuntime().availableProcessors());
+
+        Timer.measure("Algorithms.mergeSort", 2, 5, () -> check(Algorithms.mergeSort(input.clone(), order)));
+        Timer.measure("Algorithms.parallelMergeSort", 2, 5, () -> check(Algorithms.parallelMergeSort(input.clone(), order)));
+
+        Timer.measure("Arrays.sort", 2, 5, () -> {
+            Integer[] arr = input.clone();
+            Arrays.sort(arr, order);
+            return check(arr);
+        });
+
+        Timer.measure("Arrays.parallelSort", 2, 5, () -> {
+            Integer[] arr = input.clone();
+            Arrays.parallelSort(arr, order);
+            return check(arr);
+        });
+
+        System.out.println();
+        int[] ints = new Random(42).ints(SIZE).toArray();
+
+        Timer.measure("Algorithms.sort(int[]) (radix)", 2, 5, () -> Algorithms.sort(ints.clone()).length);
+        Timer.measure("Algorithms.introSort(int[])", 2, 5, () -> Algorithms.introSort(ints.clone()).length);
+        Timer.measure("Arrays.sort(int[])", 2, 5, () -> {
+            int[] arr = ints.clone();
+            Arrays.sort(arr);
+            return arr.length;
+        });
+
+        System.out.println();
+        List<String> words = Files.readAllLines(Paths.get("src/data/dictionary.txt"), StandardCharsets.UTF_8);
+        Collections.shuffle(words, new Random(42));
+        String[] dictionary = words.toArray(new String[0]);
+
+        Timer.measure("Algorithms.sort(String[]) (3-way quicksort)", () -> Algorithms.sort(dictionary.clone()).length);
+        Timer.measure("Algorithms.introSort(String[])", () -> Algorithms.introSort(dictionary.clone(), Comparator.naturalOrder()).length);
+        Timer.measure("Arrays.sort(String[])", () -> {
+            String[] arr = dictionary.clone();
+            Arrays.sort(arr);
+            return arr.length;
+        });
+
+    }
+
+    /**
+     * Verifies that the array is sorted.
+     * @param arr array to check.
+     * @return length of the array.
+     * @throws IllegalStateException if the array isn't sorted.
+     */
+    private static long check(Integer[] arr) {
+        for (int i = 1; i < arr.length; i++)
+            if (arr[i - 1] > arr[i])
+                throw new IllegalStateException("not sorted at index " + i);
+        return arr.length;
+    }
+
+}
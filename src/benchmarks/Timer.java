@@ -0,0 +1,86 @@
+package benchmarks;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Minimal timing helper shared by the benchmarks.
+ * Runs a task several times to let the JIT warm up and reports the best run
+ * together with the number of bytes a single run allocates.
+ *
+ * @author Anton Hrytsyk
+ */
+final class Timer {
+
+    /**
+     * Number of runs that are discarded before measuring.
+     */
+    private static final int WARMUP_RUNS = 5;
+
+    /**
+     * Number of measured runs.
+     */
+    private static final int MEASURED_RUNS = 10;
+
+    /**
+     * Prevents dead code elimination of benchmark results.
+     */
+    static volatile long sink;
+
+    /**
+     * HotSpot extension of the thread bean, used to read per-thread allocation counters.
+     */
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private Timer() {
+    }
+
+    /**
+     * Runs the task and prints the best measured time.
+     * @param label name that will be printed next to the result.
+     * @param task  code to measure, returned value is consumed to keep the JIT honest.
+     * @return best measured time in nanoseconds.
+     */
+    static long measure(String label, Task task) {
+        return measure(label, WARMUP_RUNS, MEASURED_RUNS, task);
+    }
+
+    /**
+     * Runs the task the specified number of times and prints the best measured time.
+     * Used by long running benchmarks where the default number of runs would take too long.
+     * @param label        name that will be printed next to the result.
+     * @param warmupRuns   number of runs that are discarded.
+     * @param measuredRuns number of measured runs.
+     * @param task         code to measure, returned value is consumed to keep the JIT honest.
+     * @return best measured time in nanoseconds.
+     */
+    static long measure(String label, int warmupRuns, int measuredRuns, Task task) {
+
+        for (int i = 0; i < warmupRuns; i++)
+            sink += task.run();
+
+        long best = Long.MAX_VALUE;
+        long allocated = Long.MAX_VALUE;
+        long thread = Thread.currentThread().getId();
+
+        for (int i = 0; i < measuredRuns; i++) {
+            long bytes = THREADS.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            sink += task.run();
+            best = Math.min(best, System.nanoTime() - start);
+            allocated = Math.min(allocated, THREADS.getThreadAllocatedBytes(thread) - bytes);
+        }
+
+        System.out.printf("%-45s %10.3f ms %12.1f KB allocated%n", label, best / 1e6, allocated / 1024.0);
+        return best;
+    }
+
+    /**
+     * Benchmarked piece of code.
+     */
+    @FunctionalInterface
+    interface Task {
+        long run();
+    }
+
+}
@@ -0,0 +1,80 @@
+package benchmarks;
+
+import dataStructures.AutoCompleteDictionaryTrie;
+import dataStructures.LoudsTrie;
+import dataStructures.OffHeapTrie;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the memory of the trie variants on the same dictionary.
+ *
+ * Heap sizes are measured as the growth of the used heap after full collections, so they include every object
+ * the structure keeps alive; the structures' own estimates are printed next to them.
+ *
+ * <pre>
+ *     java -cp core/target/classes benchmarks.TrieSizeBenchmark [dictionary]
+ * </pre>
+ *
+ * @author Anton Hrytsyk
+ */
+public final class TrieSizeBenchmark {
+
+    public static void main(String[] args) throws Exception {
+
+        String path = (args.length > 0) ? args[0] : "src/data/dictionary.txt";
+        List<String> words = new ArrayList<>();
+        for (String word : Files.readAllLines(Paths.get(path), StandardCharsets.UTF_8))
+            if (!word.isEmpty()) words.add(word);
+
+        long before = usedHeap();
+        AutoCompleteDictionaryTrie trie = new AutoCompleteDictionaryTrie(words.iterator());
+        long pointerBytes = usedHeap() - before;
+        trie.trimToSize();
+        long trimmedBytes = usedHeap() - before;
+        long nodes = trie.statistics().getNodes();
+
+        OffHeapTrie offHeap = new OffHeapTrie(trie);
+
+        before = usedHeap();
+        LoudsTrie louds = new LoudsTrie(trie);
+        long loudsBytes = usedHeap() - before;
+
+        System.out.printf("%d words, %d nodes%n", words.size(), nodes);
+        print("AutoCompleteDictionaryTrie", pointerBytes, nodes);
+        print("  after trimToSize", trimmedBytes, nodes);
+        System.out.printf("  %-28s %,12d bytes%n", "estimate", trie.statistics().getEstimatedBytes());
+        print("OffHeapTrie (off-heap)", offHeap.offHeapBytes(), nodes);
+        print("LoudsTrie", loudsBytes, nodes);
+        System.out.printf("  %-28s %,12d bytes%n", "encoding", louds.sizeInBytes());
+
+        Timer.sink = trie.size() + offHeap.size() + louds.size();
+    }
+
+
+    /**
+     * Prints a size in bytes and per node.
+     * @param label name of the structure.
+     * @param bytes size in bytes.
+     * @param nodes number of trie nodes.
+     */
+    private static void print(String label, long bytes, long nodes) {
+        System.out.printf("%-30s %,12d bytes %8.1f bits/node%n", label, bytes, bytes * 8.0 / nodes);
+    }
+
+
+    /**
+     * Returns the used heap after full collections.
+     * @return used heap in bytes.
+     */
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+}
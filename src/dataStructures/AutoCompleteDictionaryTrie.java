@@ -3,6 +3,7 @@ package dataStructures;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * This is an implementation of a trie.
@@ -16,13 +17,14 @@ public final class AutoCompleteDictionaryTrie {
      * Represents a TrieNode.
      * @author Anton Hrytsyk
      */
-    private class Node {
+    private static final class Node {
 
 
         /**
          * Stores references to child nodes.
+         * Keyed by primitive chars, so traversal doesn't box characters.
          */
-         Map<Character, Node> children;
+         CharToObjectMap<Node> children;
 
         /**
          * Stores text on the trie.
@@ -51,7 +53,7 @@ public final class AutoCompleteDictionaryTrie {
 
             this.text = text;
             this.isEndOfWord = false;
-            this.children = new HashMap<>();
+            this.children = new CharToObjectMap<>();
         }
 
         /**
@@ -59,28 +61,20 @@ public final class AutoCompleteDictionaryTrie {
          * @param data letter that needs to be accessed
          * @return a child that is associated with the specific character
          */
-        Node getChild(Character data) {
+        Node getChild(char data) {
             return children.get(data);
         }
 
-        /**
-         * Return the set of characters that have links from this node
-         * @return set of characters that have links from this node
-         */
-        Set<Character> getNextValidCharacters() {
-            return this.children.keySet();
-        }
-
 
         /**
          * Adds a child to an existing node.
          * @param data letter to which the current node will now link.
          * @return inserted Node.
          */
-        Node addChild(Character data) {
+        Node addChild(char data) {
 
 
-            Node node = new Node(text + data.toString());
+            Node node = new Node(text + data);
             this.children.put(data, node);
 
             return node;
@@ -99,6 +93,22 @@ public final class AutoCompleteDictionaryTrie {
      */
     private int size;
 
+    /**
+     * Number of structural changes, lets cached statistics tell whether they are still current.
+     */
+    private volatile int modCount;
+
+    /**
+     * Receives operation events, <code> null </code> when instrumentation is disabled.
+     * Disabled instrumentation costs a single field read per operation.
+     */
+    private volatile TrieListener listener;
+
+    /**
+     * Rejects missing words and prefixes before the trie is descended, <code> null </code> when disabled.
+     */
+    private volatile DictionaryFilter filter;
+
     /**
      * Default Constructor
      * Creates a Trie and initializes it with a default dictionary.
@@ -115,12 +125,40 @@ public final class AutoCompleteDictionaryTrie {
      */
     public AutoCompleteDictionaryTrie(String dictionary) {
 
+        this(dictionary, null);
+
+    }
+
+    /**
+     * Creates an instrumented trie and initializes it with a specified dictionary.
+     * The listener is attached before loading, so it receives the load events as well.
+     * @param dictionary path to the dictionary.
+     * @param listener receives operation events, <code> null </code> disables instrumentation.
+     */
+    public AutoCompleteDictionaryTrie(String dictionary, TrieListener listener) {
+
         root = new Node();
         size = 0;
+        this.listener = listener;
         loadDictionary(dictionary);
 
     }
 
+    /**
+     * Creates a trie and fills it with the given words.
+     * Lets the trie be built from any source, e.g. the sorted output of <code> algorithms.ExternalSort </code>,
+     * without writing the words to a file first.
+     * @param words words that will be stored in the trie.
+     */
+    public AutoCompleteDictionaryTrie(Iterator<String> words) {
+
+        root = new Node();
+        size = 0;
+        while (words.hasNext())
+            addWord(words.next());
+
+    }
+
 
     /**
      * Adds a new word to the dictionary.
@@ -129,17 +167,23 @@ public final class AutoCompleteDictionaryTrie {
      *         <code> false </code> if the word is already in the dictionary.
      */
     public boolean addWord(String text) {
+        TrieListener listener = this.listener;
+        long start = (listener != null) ? System.nanoTime() : 0;
+
         text = text.toLowerCase();
         boolean isNewWord = false;
         Node current = root;
 
-        for (char c:text.toCharArray()) {
+        for (int i = 0; i < text.length(); i++) {
 
-            if (current.getChild(c) == null) {
+            char c = text.charAt(i);
+            Node child = current.getChild(c);
+
+            if (child == null) {
                 current = current.addChild(c);
                 isNewWord = true;
             }
-            else current = current.getChild(c);
+            else current = child;
 
         }
 
@@ -147,13 +191,59 @@ public final class AutoCompleteDictionaryTrie {
         if (!current.isEndOfWord) {
             current.isEndOfWord = true;
             size++;
+            modCount++;
         }
 
+        DictionaryFilter filter = this.filter;
+        if (filter != null) filter.add(text);
+
+        if (listener != null) listener.wordAdded(text, isNewWord, System.nanoTime() - start);
 
         return isNewWord;
     }
 
 
+    /**
+     * Removes a word from the dictionary.
+     * Nodes that are left without words below them are unlinked, so removing words gives the memory back.
+     * @param text word that will be removed from the trie.
+     * @return <code> true  </code> if the word was removed.
+     *         <code> false </code> if the word isn't in the dictionary.
+     */
+    public boolean removeWord(String text) {
+        TrieListener listener = this.listener;
+        long start = (listener != null) ? System.nanoTime() : 0;
+
+        text = text.toLowerCase();
+
+        // Remember the path, so dead nodes can be unlinked on the way back up.
+        Node[] path = new Node[text.length() + 1];
+        path[0] = root;
+
+        for (int i = 0; i < text.length() && path[i] != null; i++)
+            path[i + 1] = path[i].getChild(text.charAt(i));
+
+        Node node = path[text.length()];
+        boolean removed = node != null && node.isEndOfWord;
+
+        if (removed) {
+            node.isEndOfWord = false;
+            size--;
+            modCount++;
+
+            for (int depth = text.length(); depth > 0; depth--) {
+                Node current = path[depth];
+                if (current.isEndOfWord || !current.children.isEmpty()) break;
+                path[depth - 1].children.remove(text.charAt(depth - 1));
+            }
+        }
+
+        if (listener != null) listener.wordRemoved(text, removed, System.nanoTime() - start);
+
+        return removed;
+    }
+
+
     /**
      * Checks whether parameter is a valid word in the trie.
      * @param text text to check.
@@ -162,17 +252,31 @@ public final class AutoCompleteDictionaryTrie {
      */
     public boolean isWord(String text) {
 
+        TrieListener listener = this.listener;
+        long start = (listener != null) ? System.nanoTime() : 0;
+
         Node current = root;
         text = text.toLowerCase();
+        int visited = 1;
 
-        for (Character c : text.toCharArray()) {
+        DictionaryFilter filter = this.filter;
+        if (filter != null && !filter.mightBeWord(text)) {
+            if (listener != null) listener.wordChecked(text, false, 0, System.nanoTime() - start);
+            return false;
+        }
 
-            current = current.getChild(c);
+        for (int i = 0; i < text.length() && current != null; i++) {
 
-            if (current.getChild(c) == null) return false;
+            current = current.getChild(text.charAt(i));
+            if (current != null) visited++;
         }
 
-        return true;
+        boolean found = current != null && current.isEndOfWord;
+        if (!found && filter != null) filter.wordFalsePositive();
+
+        if (listener != null) listener.wordChecked(text, found, visited, System.nanoTime() - start);
+
+        return found;
     }
 
 
@@ -191,36 +295,149 @@ public final class AutoCompleteDictionaryTrie {
     public List<String> produceCompletions(String text, int numOfCompletions) {
 
         List<String> completions = new LinkedList<>();
+        produceCompletions(text, numOfCompletions, completions::add);
+        return completions;
+
+    }
+
+
+    /**
+     * Auto-Complete algorithm that hands completions over as they are found instead of collecting them.
+     * Completions come in the same order as in {@link #produceCompletions(String, int)},
+     * which lets callers such as a server serialize the response straight from the traversal.
+     *
+     * @param text - word that needs to be auto-completed.
+     * @param numOfCompletions - maximum number of completions that will be passed to the consumer.
+     * @param consumer receives the completions.
+     * @return number of completions passed to the consumer.
+     */
+    public int produceCompletions(String text, int numOfCompletions, Consumer<String> consumer) {
+
+        TrieListener listener = this.listener;
+        long start = (listener != null) ? System.nanoTime() : 0;
+
+        int produced = 0;
         Node current = root;
         text = text.toLowerCase();
+        int visited = 1;
 
-        for (Character c : text.toCharArray()) {
+        DictionaryFilter filter = this.filter;
+        if (filter != null && !filter.mightBePrefix(text)) {
+            if (listener != null) listener.completionsProduced(text, 0, 0, System.nanoTime() - start);
+            return 0;
+        }
+
+        for (int i = 0; i < text.length(); i++) {
 
-            if (current.getChild(c) == null) {
-                return completions;
+            current = current.getChild(text.charAt(i));
+            if (current == null) {
+                if (filter != null) filter.prefixFalsePositive(text);
+                if (listener != null) listener.completionsProduced(text, 0, visited, System.nanoTime() - start);
+                return 0;
             }
-            current = current.getChild(c);
+            visited++;
 
         }
 
-        Queue<Node> queue = new LinkedList<>();
-        queue.add(current);
+        Node prefix = current;
+        Queue<Node> queue = new ArrayDeque<>();
+        queue.add(prefix);
 
-        while (!queue.isEmpty() && completions.size() < numOfCompletions) {
+        while (!queue.isEmpty() && produced < numOfCompletions) {
 
             current = queue.remove();
-            if (current.isEndOfWord) completions.add(current.text);
+            // The prefix node was already counted by the descent.
+            if (current != prefix) visited++;
+            if (current.isEndOfWord) {
+                consumer.accept(current.text);
+                produced++;
+            }
 
-            for (Character c : current.getNextValidCharacters()) {
-                queue.add(current.getChild(c));
+            for (int i = 0; i < current.children.size(); i++) {
+                queue.add(current.children.valueAt(i));
             }
 
 
         }
 
-        return completions;
+        if (listener != null)
+            listener.completionsProduced(text, produced, visited, System.nanoTime() - start);
+
+        return produced;
+
+
+    }
+
+
+    /**
+     * Checks whether any word starts with the parameter.
+     * @param text prefix to check.
+     * @return <code> true </code> if at least one word starts with the prefix, the empty prefix included.
+     */
+    public boolean isPrefix(String text) {
+
+        text = text.toLowerCase();
+
+        DictionaryFilter filter = this.filter;
+        if (filter != null && !filter.mightBePrefix(text)) return false;
 
+        Node current = root;
+        for (int i = 0; i < text.length() && current != null; i++)
+            current = current.getChild(text.charAt(i));
 
+        if (current == null && filter != null) filter.prefixFalsePositive(text);
+        return current != null;
+    }
+
+
+    /**
+     * Builds a Bloom filter over all words and all prefixes up to the given length and puts it in front of
+     * <code> isWord </code>, <code> isPrefix </code> and <code> produceCompletions </code>, replacing the current one.
+     * Words added later are added to the filter as well, so the false positive rate creeps up as the trie grows
+     * beyond the size it had here; enabling the filter again rebuilds it.
+     *
+     * @param falsePositiveRate probability that a missing word or prefix isn't rejected, e.g. 0.01.
+     * @param maxPrefixLength   longest prefix the filter answers for, longer ones go straight to the trie.
+     * @return the new filter, for its size and counters.
+     */
+    public DictionaryFilter enableFilter(double falsePositiveRate, int maxPrefixLength) {
+
+        TrieStatistics statistics = statistics();
+        long[] perDepth = statistics.getNodesPerDepth();
+        long keys = size;
+        for (int depth = 1; depth < perDepth.length && depth <= maxPrefixLength; depth++)
+            keys += perDepth[depth];
+
+        DictionaryFilter filter = new DictionaryFilter(keys, falsePositiveRate, maxPrefixLength);
+
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            if (node.isEndOfWord) filter.add(node.text);
+            for (int i = 0; i < node.children.size(); i++)
+                stack.push(node.children.valueAt(i));
+        }
+
+        this.filter = filter;
+        return filter;
+    }
+
+
+    /**
+     * Removes the Bloom filter, lookups go straight to the trie again.
+     */
+    public void disableFilter() {
+        filter = null;
+    }
+
+
+    /**
+     * Returns the Bloom filter in front of the trie.
+     * @return filter, <code> null </code> if it's disabled.
+     */
+    public DictionaryFilter getFilter() {
+        return filter;
     }
 
 
@@ -233,12 +450,137 @@ public final class AutoCompleteDictionaryTrie {
     }
 
 
+    /**
+     * Attaches a listener that receives operation events, replacing the previous one.
+     * @param listener receives operation events, <code> null </code> disables instrumentation.
+     */
+    public void setListener(TrieListener listener) {
+        this.listener = listener;
+    }
+
+
+    /**
+     * Returns the attached listener.
+     * @return attached listener, <code> null </code> if instrumentation is disabled.
+     */
+    public TrieListener getListener() {
+        return listener;
+    }
+
+
+    /**
+     * Shrinks child maps of all nodes to their number of children.
+     * Maps grow by doubling while words are added, so a fully built trie carries a lot of unused slots.
+     * Call once the trie won't grow anymore.
+     */
+    public void trimToSize() {
+
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+
+        while (!stack.isEmpty()) {
+            CharToObjectMap<Node> children = stack.pop().children;
+            children.trimToSize();
+            for (int i = 0; i < children.size(); i++)
+                stack.push(children.valueAt(i));
+        }
+        modCount++;
+    }
+
+
+    /**
+     * Returns the number of structural changes so far: words added or removed and trimming.
+     * @return modification count, changes whenever {@link #statistics()} may give a different result.
+     */
+    int modCount() {
+        return modCount;
+    }
+
+
+    /**
+     * Collects structural statistics by walking the whole trie.
+     * Takes time proportional to the number of nodes, meant for monitoring rather than the hot path.
+     * @return node count, nodes per depth and estimated heap size of the trie.
+     */
+    public TrieStatistics statistics() {
+
+        TrieStatistics statistics = new TrieStatistics(size);
+
+        // Level-order walk, depth of a level is the length of its nodes' text.
+        List<Node> level = new ArrayList<>();
+        level.add(root);
+        int depth = 0;
+
+        while (!level.isEmpty()) {
+            List<Node> next = new ArrayList<>();
+            for (Node node : level) {
+                CharToObjectMap<Node> children = node.children;
+                statistics.addNode(depth, node.text.length(), children.size(), children.capacity());
+                for (int i = 0; i < children.size(); i++)
+                    next.add(children.valueAt(i));
+            }
+            level = next;
+            depth++;
+        }
+
+        return statistics;
+    }
+
+
+    /**
+     * Receives the nodes of a level-order walk, see {@link #levelOrder(NodeVisitor)}.
+     */
+    interface NodeVisitor {
+
+        /**
+         * Called once per node, in level order with children in ascending order.
+         * @param parent     position of the parent in the walk, -1 for the root.
+         * @param label      character on the edge from the parent, 0 for the root.
+         * @param isWord     whether the node ends a word.
+         * @param depth      length of the node's text.
+         * @param childCount number of children.
+         */
+        void visit(int parent, char label, boolean isWord, int depth, int childCount);
+    }
+
+
+    /**
+     * Walks all nodes in the same level order that completions use,
+     * so children of every node are visited one after another. Used to copy the trie into other layouts.
+     * @param visitor receives the nodes.
+     */
+    void levelOrder(NodeVisitor visitor) {
+
+        Queue<Node> nodes = new ArrayDeque<>();
+        IntList parents = new IntList();
+        nodes.add(root);
+        parents.add(-1);
+
+        for (int position = 0; !nodes.isEmpty(); position++) {
+
+            Node node = nodes.remove();
+            int parent = parents.get(position);
+            char label = (parent < 0) ? 0 : node.text.charAt(node.text.length() - 1);
+
+            visitor.visit(parent, label, node.isEndOfWord, node.text.length(), node.children.size());
+
+            for (int i = 0; i < node.children.size(); i++) {
+                nodes.add(node.children.valueAt(i));
+                parents.add(position);
+            }
+        }
+    }
+
+
     /**
      * Loads the dictionary from a specified locations.
      * @param path - a String containing the path to the dictionary.
      */
     private void loadDictionary(String path) {
 
+        TrieListener listener = this.listener;
+        long start = System.nanoTime();
+
         try {
             BufferedReader reader = new BufferedReader(new FileReader(path));
             String nextWord;
@@ -250,6 +592,8 @@ public final class AutoCompleteDictionaryTrie {
             e.printStackTrace();
         }
 
+        if (listener != null) listener.dictionaryLoaded(path, size, System.nanoTime() - start);
+
 
     }
 
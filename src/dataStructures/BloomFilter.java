@@ -0,0 +1,205 @@
+package dataStructures;
+
+/**
+ * Blocked Bloom filter over 64-bit hashes.
+ *
+ * Every key maps to a single 512-bit block, the size of a cache line, and sets all of its bits inside that block,
+ * so a lookup reads one or two cache lines (Java doesn't align arrays to cache lines) however many bits it tests.
+ * Blocking costs a little accuracy compared to a classic Bloom filter, which the sizing makes up for with
+ * a few more bits per key.
+ *
+ * A filter never forgets a key, so <code> mightContain </code> returning <code> false </code> is definite,
+ * while <code> true </code> is wrong with the configured probability for keys that were never added.
+ * Lookups are safe from many threads as long as no keys are being added.
+ *
+ * @author Anton Hrytsyk
+ */
+public final class BloomFilter {
+
+    /**
+     * Initial state of a running hash, see {@link #update(long, char)}.
+     */
+    public static final long HASH_START = 0xCBF29CE484222325L;
+
+    /**
+     * Number of <code> long </code> words in a block, 8 * 64 = 512 bits.
+     */
+    private static final int BLOCK_WORDS = 8;
+    private static final int BLOCK_BITS = BLOCK_WORDS * Long.SIZE;
+
+    /**
+     * Extra bits per key that compensate for keys crowding into the same blocks.
+     */
+    private static final double BLOCKING_OVERHEAD = 1.1;
+
+    /**
+     * Most bits set per key.
+     */
+    private static final int MAX_HASH_COUNT = 16;
+
+    /**
+     * Bits of all blocks.
+     */
+    private final long[] bits;
+
+    /**
+     * Number of blocks.
+     */
+    private final int blocks;
+
+    /**
+     * Number of bits set per key.
+     */
+    private final int hashCount;
+
+    /**
+     * False positive probability the filter was sized for.
+     */
+    private final double falsePositiveRate;
+
+
+    /**
+     * Creates a filter sized for the number of keys and false positive rate.
+     *
+     * @throws IllegalArgumentException if expected keys are negative or the rate isn't between 0 and 1.
+     *
+     * @param expectedKeys      number of keys that will be added.
+     * @param falsePositiveRate probability that a key which wasn't added is reported as present, e.g. 0.01.
+     */
+    public BloomFilter(long expectedKeys, double falsePositiveRate) {
+
+        if (expectedKeys < 0)
+            throw new IllegalArgumentException("expected keys can't be negative: " + expectedKeys);
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1))
+            throw new IllegalArgumentException("false positive rate has to be between 0 and 1: " + falsePositiveRate);
+
+        double bitsPerKey = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)) * BLOCKING_OVERHEAD;
+        long totalBits = (long) Math.ceil(Math.max(1, expectedKeys) * bitsPerKey);
+        long blockCount = (totalBits + BLOCK_BITS - 1) / BLOCK_BITS;
+
+        if (blockCount * BLOCK_WORDS > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("filter too large for " + expectedKeys + " keys");
+
+        this.blocks = (int) blockCount;
+        this.bits = new long[blocks * BLOCK_WORDS];
+        this.hashCount = (int) Math.max(1, Math.min(MAX_HASH_COUNT, Math.round(bitsPerKey / BLOCKING_OVERHEAD * Math.log(2))));
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+
+    /**
+     * Adds a key.
+     * @param hash well mixed 64-bit hash of the key, e.g. from {@link #hash(long, long)}.
+     */
+    public void add(long hash) {
+
+        int block = block(hash) * BLOCK_WORDS;
+        int h1 = (int) hash, h2 = step(hash);
+
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (h1 + i * h2) & (BLOCK_BITS - 1);
+            bits[block + (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+
+    /**
+     * Checks whether a key may have been added.
+     * @param hash well mixed 64-bit hash of the key.
+     * @return <code> false </code> if the key was definitely never added.
+     */
+    public boolean mightContain(long hash) {
+
+        int block = block(hash) * BLOCK_WORDS;
+        int h1 = (int) hash, h2 = step(hash);
+
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (h1 + i * h2) & (BLOCK_BITS - 1);
+            if ((bits[block + (bit >>> 6)] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+
+    /**
+     * Returns the number of bits set per key.
+     * @return number of hash functions.
+     */
+    public int hashCount() {
+        return hashCount;
+    }
+
+
+    /**
+     * Returns the false positive rate the filter was sized for.
+     * @return configured false positive probability.
+     */
+    public double falsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+
+    /**
+     * Returns the size of the bit array.
+     * @return number of bytes the bits occupy.
+     */
+    public long sizeInBytes() {
+        return (long) bits.length * Long.BYTES;
+    }
+
+
+    /**
+     * Feeds a character into a running hash, see {@link #hash(long, long)}.
+     * @param state running hash, start with {@link #HASH_START}.
+     * @param c     next character.
+     * @return updated running hash.
+     */
+    public static long update(long state, char c) {
+        return (state ^ c) * 0x100000001B3L;
+    }
+
+    /**
+     * Finishes a running hash: mixes in the seed and spreads the bits over the whole <code> long </code>.
+     * Different seeds give independent hashes of the same characters, so one filter can hold several kinds of keys.
+     * @param state running hash.
+     * @param seed  kind of the key.
+     * @return final hash.
+     */
+    public static long hash(long state, long seed) {
+        long h = state ^ seed;
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+
+    /**
+     * Derives the stride between bit positions of a key, odd so all positions of a block are reachable.
+     * @param hash hash of the key.
+     * @return stride.
+     */
+    private static int step(long hash) {
+        return (int) ((hash * 0x9E3779B97F4A7C15L) >>> 32) | 1;
+    }
+
+
+    /**
+     * Picks the block of a key, from the upper half of the hash so it doesn't correlate with the bit positions.
+     * @param hash hash of the key.
+     * @return index of the block.
+     */
+    private int block(long hash) {
+        return (int) (((hash >>> 32) * blocks) >>> 32);
+    }
+
+
+    /**
+     * String value that represents the filter.
+     * @return size, hash count and configured false positive rate.
+     */
+    @Override
+    public String toString() {
+        return "BloomFilter{bytes=" + sizeInBytes() + ", hashCount=" + hashCount + ", falsePositiveRate=" + falsePositiveRate + '}';
+    }
+
+}
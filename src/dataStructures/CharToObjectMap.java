@@ -0,0 +1,229 @@
+package dataStructures;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Small map from primitive <code> char </code> keys to objects.
+ * Designed for trie nodes, which usually have only a handful of children.
+ *
+ * Keys are kept sorted in a <code> char[] </code> with values in a parallel array,
+ * so lookups neither box the key nor chase entry objects, and iteration goes in ascending key order.
+ * Entries are accessed by position through {@link #keyAt(int)} and {@link #valueAt(int)}.
+ *
+ * @param <V> type of the values.
+ *
+ * @author Anton Hrytsyk
+ */
+public class CharToObjectMap<V> implements Serializable {
+
+    /**
+     * Used during deserialization to confirm that objects are compatible.
+     * @value 1L
+     */
+    public static final long serialVersionUID = 1L;
+
+    /**
+     * Shared storage of empty maps, so leaves don't allocate arrays.
+     */
+    private static final char[] EMPTY_KEYS = {};
+    private static final Object[] EMPTY_VALUES = {};
+
+    /**
+     * Up to this many keys a linear scan is faster than binary search.
+     */
+    private static final int LINEAR_SCAN_LIMIT = 16;
+
+    /**
+     * Sorted keys and their values, only the first <code> size </code> are in use.
+     */
+    private char[] keys;
+    private Object[] values;
+
+    /**
+     * Number of entries in the map.
+     */
+    private int size;
+
+
+    /**
+     * Creates an empty map.
+     */
+    public CharToObjectMap() {
+        keys = EMPTY_KEYS;
+        values = EMPTY_VALUES;
+        size = 0;
+    }
+
+
+    /**
+     * Returns value associated with the key.
+     * @param key key to look up.
+     * @return associated value or <code> null </code> if the key isn't in the map.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(char key) {
+        int index = indexOf(key);
+        return (index >= 0) ? (V) values[index] : null;
+    }
+
+
+    /**
+     * Checks whether the key is in the map.
+     * @param key key to look up.
+     * @return <code> true </code> if the map contains the key.
+     */
+    public boolean containsKey(char key) {
+        return indexOf(key) >= 0;
+    }
+
+
+    /**
+     * Associates value with the key.
+     * @param key   key of the entry.
+     * @param value value of the entry.
+     * @return previous value associated with the key or <code> null </code> if there was none.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(char key, V value) {
+
+        int index = indexOf(key);
+
+        if (index >= 0) {
+            V old = (V) values[index];
+            values[index] = value;
+            return old;
+        }
+
+        index = -(index + 1);
+
+        if (size == keys.length) {
+            int capacity = (size == 0) ? 2 : size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(values, index, values, index + 1, size - index);
+
+        keys[index] = key;
+        values[index] = value;
+        size++;
+
+        return null;
+    }
+
+
+    /**
+     * Removes the key from the map.
+     * @param key key to remove.
+     * @return value that was associated with the key or <code> null </code> if there was none.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(char key) {
+
+        int index = indexOf(key);
+        if (index < 0) return null;
+
+        V old = (V) values[index];
+
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        values[--size] = null;
+
+        if (size == 0) {
+            keys = EMPTY_KEYS;
+            values = EMPTY_VALUES;
+        }
+
+        return old;
+    }
+
+
+    /**
+     * Returns key at the given position, keys are in ascending order.
+     * @param index position of the entry, from 0 to <code> size() - 1 </code>.
+     * @return key at the position.
+     */
+    public char keyAt(int index) {
+        return keys[index];
+    }
+
+
+    /**
+     * Returns value at the given position.
+     * @param index position of the entry, from 0 to <code> size() - 1 </code>.
+     * @return value at the position.
+     */
+    @SuppressWarnings("unchecked")
+    public V valueAt(int index) {
+        return (V) values[index];
+    }
+
+
+    /**
+     * Returns the number of entries in the map.
+     * @return number of entries in the map.
+     */
+    public int size() {
+        return size;
+    }
+
+
+    /**
+     * Returns the number of entries the map can hold before growing.
+     * @return length of the backing arrays.
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+
+    /**
+     * Checks whether the map has no entries.
+     * @return <code> true </code> if the map is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+
+    /**
+     * Shrinks the backing arrays to the number of entries.
+     * Useful once a trie is fully built and won't grow anymore.
+     */
+    public void trimToSize() {
+        if (size < keys.length) {
+            keys = (size == 0) ? EMPTY_KEYS : Arrays.copyOf(keys, size);
+            values = (size == 0) ? EMPTY_VALUES : Arrays.copyOf(values, size);
+        }
+    }
+
+
+    /**
+     * Finds position of the key.
+     * @param key key to look up.
+     * @return position of the key, or <code> -(insertion point) - 1 </code> if the key isn't in the map.
+     */
+    private int indexOf(char key) {
+
+        if (size <= LINEAR_SCAN_LIMIT) {
+            // Counting smaller keys without branching avoids mispredicted early exits on random lookups.
+            int i = 0;
+            for (int j = 0; j < size; j++)
+                i += (keys[j] - key) >>> 31;
+            return (i < size && keys[i] == key) ? i : -(i + 1);
+        }
+
+        int low = 0, high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char k = keys[middle];
+            if (k < key)      low = middle + 1;
+            else if (k > key) high = middle - 1;
+            else              return middle;
+        }
+        return -(low + 1);
+    }
+
+}
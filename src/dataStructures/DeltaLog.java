@@ -0,0 +1,260 @@
+package dataStructures;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only log of dictionary changes, replayable on top of a base dictionary file.
+ *
+ * Every change is one UTF-8 line: <code> +word </code> adds a word, <code> -word </code> removes it.
+ * Replaying is incremental - {@link #replay(AutoCompleteDictionaryTrie, long)} starts at a byte offset and
+ * returns the offset it stopped at, so a trie that follows the log only ever reads the changes it hasn't seen.
+ * A last line without its newline is an append in progress (or a torn write) and is left for the next replay.
+ *
+ * Once the log grows, {@link #compact(AutoCompleteDictionaryTrie, Path)} writes the trie out as the new base
+ * and empties the log.
+ *
+ * <pre>
+ *     AutoCompleteDictionaryTrie trie = new AutoCompleteDictionaryTrie("dictionary.txt");
+ *     DeltaLog log = new DeltaLog(Paths.get("dictionary.delta"));
+ *     long offset = log.replay(trie, 0);
+ *     ...
+ *     offset = log.replay(trie, offset);    // only applies what was appended since
+ * </pre>
+ *
+ * @author Anton Hrytsyk
+ */
+public final class DeltaLog implements Closeable {
+
+    /**
+     * Size of the read buffer, in bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Path of the log file.
+     */
+    private final Path path;
+
+    /**
+     * Whether every append is forced to the storage device before returning.
+     */
+    private final boolean sync;
+
+    /**
+     * Channel appends go through, opened on the first append.
+     */
+    private FileChannel channel;
+
+
+    /**
+     * Creates a log that doesn't force appends to the storage device.
+     * @param path path of the log file, created on the first append.
+     */
+    public DeltaLog(Path path) {
+        this(path, false);
+    }
+
+    /**
+     * Creates a log.
+     * @param path path of the log file, created on the first append.
+     * @param sync <code> true </code> to force every append to the storage device before returning.
+     */
+    public DeltaLog(Path path, boolean sync) {
+
+        if (path == null)
+            throw new IllegalArgumentException("path can't be null");
+
+        this.path = path;
+        this.sync = sync;
+    }
+
+
+    /**
+     * Records that a word was added.
+     * @param word added word.
+     * @throws IOException if writing fails.
+     */
+    public void add(String word) throws IOException {
+        append('+', word);
+    }
+
+
+    /**
+     * Records that a word was removed.
+     * @param word removed word.
+     * @throws IOException if writing fails.
+     */
+    public void remove(String word) throws IOException {
+        append('-', word);
+    }
+
+
+    /**
+     * Applies the whole log to the trie.
+     * @param trie trie the changes are applied to.
+     * @return offset right after the last applied change.
+     * @throws IOException if reading fails or the log is malformed.
+     */
+    public long replay(AutoCompleteDictionaryTrie trie) throws IOException {
+        return replay(trie, 0);
+    }
+
+
+    /**
+     * Applies changes that start at the offset to the trie.
+     *
+     * @throws IOException if reading fails or the log is malformed.
+     * @throws IllegalArgumentException if the offset is negative.
+     *
+     * @param trie   trie the changes are applied to.
+     * @param offset offset returned by the previous replay, 0 to start from the beginning.
+     * @return offset right after the last applied change, where the next replay should start.
+     */
+    public long replay(AutoCompleteDictionaryTrie trie, long offset) throws IOException {
+
+        if (offset < 0)
+            throw new IllegalArgumentException("negative offset: " + offset);
+        if (!Files.exists(path))
+            return offset;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+            if (offset > channel.size())
+                throw new IOException(path + " is shorter than offset " + offset + ", was it compacted?");
+
+            InputStream in = new BufferedInputStream(Channels.newInputStream(channel.position(offset)), BUFFER_SIZE);
+            ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+            long position = offset;
+            int b;
+
+            while ((b = in.read()) != -1) {
+
+                position++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+
+                if (line.size() > 0) apply(trie, line.toString(StandardCharsets.UTF_8), position);
+                line.reset();
+                offset = position;
+            }
+
+            return offset;
+        }
+    }
+
+
+    /**
+     * Writes all words of the trie as the new base file and empties the log.
+     * The base is replaced atomically where the file system allows it, so a crash leaves either the old base with
+     * the full log or the new base. Offsets returned by earlier replays are invalid afterwards.
+     *
+     * @param trie trie that reflects the base with the whole log applied.
+     * @param base path of the base dictionary file.
+     * @throws IOException if writing fails.
+     */
+    public synchronized void compact(AutoCompleteDictionaryTrie trie, Path base) throws IOException {
+
+        Path temporary = base.resolveSibling(base.getFileName() + ".tmp");
+
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            IOException[] failure = new IOException[1];
+            trie.produceCompletions("", Math.max(trie.size(), 1), word -> {
+                if (failure[0] != null) return;
+                try {
+                    writer.write(word);
+                    writer.newLine();
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) throw failure[0];
+        }
+
+        try {
+            Files.move(temporary, base, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(temporary, base, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        close();
+        Files.deleteIfExists(path);
+    }
+
+
+    /**
+     * Closes the channel used for appending, the next append opens it again.
+     * @throws IOException if closing fails.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+
+    /**
+     * Appends a change as a single write, so concurrent readers never see half of a line followed by a newline.
+     * @param operation <code> + </code> or <code> - </code>.
+     * @param word      changed word.
+     * @throws IOException if writing fails.
+     */
+    private synchronized void append(char operation, String word) throws IOException {
+
+        if (word == null)
+            throw new IllegalArgumentException("word can't be null");
+        if (word.isEmpty() || word.indexOf('\n') >= 0 || word.indexOf('\r') >= 0)
+            throw new IllegalArgumentException("word has to be a non-empty single line: " + word);
+
+        byte[] bytes = (operation + word + '\n').getBytes(StandardCharsets.UTF_8);
+
+        if (channel == null)
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+
+        if (sync) channel.force(false);
+    }
+
+
+    /**
+     * Applies a single change.
+     * @param trie     trie the change is applied to.
+     * @param line     line without its newline.
+     * @param position offset right after the line, for error messages.
+     * @throws IOException if the line isn't a change.
+     */
+    private void apply(AutoCompleteDictionaryTrie trie, String line, long position) throws IOException {
+
+        if (line.endsWith("\r")) line = line.substring(0, line.length() - 1);
+        if (line.isEmpty()) return;
+
+        String word = line.substring(1);
+
+        if (line.charAt(0) == '+' && !word.isEmpty())
+            trie.addWord(word);
+        else if (line.charAt(0) == '-' && !word.isEmpty())
+            trie.removeWord(word);
+        else
+            throw new IOException("malformed change before offset " + position + " in " + path + ": " + line);
+    }
+
+}
@@ -0,0 +1,231 @@
+package dataStructures;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fast-reject front of {@link AutoCompleteDictionaryTrie}: a {@link BloomFilter} over all words and all prefixes
+ * up to a configurable length, consulted before the trie is descended.
+ *
+ * Misses such as typos and garbage are usually rejected after reading a single cache line,
+ * hits and false positives go on to the trie, so answers never change.
+ * Words and prefixes share one bit array and are told apart by hash seeds.
+ *
+ * Counters record how many lookups the filter answered, how many it rejected and how many it let through
+ * although the trie then had nothing (false positives). Removed words keep their bits, so they show up as
+ * false positives until the filter is rebuilt.
+ *
+ * Created by {@link AutoCompleteDictionaryTrie#enableFilter(double, int)}.
+ *
+ * @author Anton Hrytsyk
+ */
+public final class DictionaryFilter {
+
+    /**
+     * Hash seeds of the two kinds of keys.
+     */
+    private static final long WORD_SEED = 0x5BD1E9955BD1E995L;
+    private static final long PREFIX_SEED = 0x27D4EB2F165667C5L;
+
+    /**
+     * Bits of words and prefixes.
+     */
+    private final BloomFilter filter;
+
+    /**
+     * Longest prefix in the filter, longer prefixes go straight to the trie.
+     */
+    private final int maxPrefixLength;
+
+    /**
+     * Lookups the filter answered, lookups it rejected and lookups it let through that the trie then rejected.
+     */
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder rejects = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+
+    /**
+     * Creates an empty filter.
+     * @param expectedKeys      number of words and prefixes that will be added.
+     * @param falsePositiveRate probability that a missing word or prefix passes the filter.
+     * @param maxPrefixLength   longest prefix that will be added.
+     */
+    DictionaryFilter(long expectedKeys, double falsePositiveRate, int maxPrefixLength) {
+
+        if (maxPrefixLength < 0)
+            throw new IllegalArgumentException("max prefix length can't be negative: " + maxPrefixLength);
+
+        this.filter = new BloomFilter(expectedKeys, falsePositiveRate);
+        this.maxPrefixLength = maxPrefixLength;
+    }
+
+
+    /**
+     * Adds a word and its prefixes up to the maximum length.
+     * @param word lower-cased word.
+     */
+    void add(String word) {
+
+        long state = BloomFilter.HASH_START;
+        for (int i = 0; i < word.length(); i++) {
+            state = BloomFilter.update(state, word.charAt(i));
+            if (i < maxPrefixLength) filter.add(BloomFilter.hash(state, PREFIX_SEED));
+        }
+        filter.add(BloomFilter.hash(state, WORD_SEED));
+    }
+
+
+    /**
+     * Checks whether the text may be a word.
+     * @param text lower-cased text.
+     * @return <code> false </code> if the text is definitely not a word.
+     */
+    boolean mightBeWord(String text) {
+
+        long state = BloomFilter.HASH_START;
+        for (int i = 0; i < text.length(); i++)
+            state = BloomFilter.update(state, text.charAt(i));
+
+        return count(filter.mightContain(BloomFilter.hash(state, WORD_SEED)));
+    }
+
+
+    /**
+     * Checks whether the text may be a prefix of a word. Prefixes longer than the maximum always pass.
+     * @param text lower-cased text.
+     * @return <code> false </code> if no word starts with the text.
+     */
+    boolean mightBePrefix(String text) {
+
+        if (!covers(text)) return true;
+
+        long state = BloomFilter.HASH_START;
+        for (int i = 0; i < text.length(); i++)
+            state = BloomFilter.update(state, text.charAt(i));
+
+        return count(filter.mightContain(BloomFilter.hash(state, PREFIX_SEED)));
+    }
+
+
+    /**
+     * Records that a word passed the filter but wasn't in the trie.
+     */
+    void wordFalsePositive() {
+        falsePositives.increment();
+    }
+
+
+    /**
+     * Records that a prefix wasn't in the trie, counted only if the filter was consulted for it.
+     * @param text lower-cased prefix.
+     */
+    void prefixFalsePositive(String text) {
+        if (covers(text)) falsePositives.increment();
+    }
+
+
+    /**
+     * Returns the longest prefix length the filter answers for.
+     * @return maximum prefix length.
+     */
+    public int getMaxPrefixLength() {
+        return maxPrefixLength;
+    }
+
+    /**
+     * Returns the false positive rate the filter was sized for.
+     * @return configured false positive probability.
+     */
+    public double getFalsePositiveRate() {
+        return filter.falsePositiveRate();
+    }
+
+    /**
+     * Returns the memory the filter bits take.
+     * @return size in bytes.
+     */
+    public long sizeInBytes() {
+        return filter.sizeInBytes();
+    }
+
+    /**
+     * Returns the number of lookups the filter answered.
+     * @return number of checks.
+     */
+    public long getChecks() {
+        return checks.sum();
+    }
+
+    /**
+     * Returns the number of lookups rejected without touching the trie.
+     * @return number of rejects.
+     */
+    public long getRejects() {
+        return rejects.sum();
+    }
+
+    /**
+     * Returns the number of lookups that passed the filter although the trie had nothing.
+     * @return number of false positives.
+     */
+    public long getFalsePositives() {
+        return falsePositives.sum();
+    }
+
+    /**
+     * Returns the share of misses the filter let through, to compare with the configured rate.
+     * @return false positives divided by all misses the filter saw, 0 if there were none.
+     */
+    public double getObservedFalsePositiveRate() {
+        long fp = falsePositives.sum(), misses = fp + rejects.sum();
+        return (misses == 0) ? 0 : (double) fp / misses;
+    }
+
+    /**
+     * Resets the counters.
+     */
+    public void resetCounters() {
+        checks.reset();
+        rejects.reset();
+        falsePositives.reset();
+    }
+
+
+    /**
+     * Counts a lookup.
+     * @param passed result of the filter.
+     * @return the same result.
+     */
+    private boolean count(boolean passed) {
+        checks.increment();
+        if (!passed) rejects.increment();
+        return passed;
+    }
+
+
+    /**
+     * Checks whether prefixes of the text's length are in the filter.
+     * @param text lower-cased prefix.
+     * @return <code> true </code> if the filter can answer for the text.
+     */
+    private boolean covers(String text) {
+        return !text.isEmpty() && text.length() <= maxPrefixLength;
+    }
+
+
+    /**
+     * String value that represents the filter.
+     * @return configuration, size and counters.
+     */
+    @Override
+    public String toString() {
+        return "DictionaryFilter{bytes=" + sizeInBytes() +
+                ", maxPrefixLength=" + maxPrefixLength +
+                ", falsePositiveRate=" + getFalsePositiveRate() +
+                ", checks=" + getChecks() +
+                ", rejects=" + getRejects() +
+                ", falsePositives=" + getFalsePositives() +
+                '}';
+    }
+
+}
@@ -1,16 +1,24 @@
 package dataStructures;
 
 import java.io.Serializable;
-import java.util.AbstractList;
+import java.util.AbstractSequentialList;
+import java.util.ConcurrentModificationException;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 
 /**
  * Implementation of a doubly linked list
+ *
+ * Indexed access walks from whichever of head, tail or the last accessed node ("finger") is closest,
+ * so sequential and nearby indexed access is amortized O(1).
+ * Iteration is performed by walking the nodes and never goes through <code> get(int) </code>.
+ *
  * @param <E> element to be stored in the list.
  *
  * @author Anton Hrytsyk
  */
-public class DoublyLinkedList<E> extends AbstractList<E> implements Serializable {
+public class DoublyLinkedList<E> extends AbstractSequentialList<E> implements Serializable {
 
 
     /**
@@ -32,6 +40,13 @@ public class DoublyLinkedList<E> extends AbstractList<E> implements Serializable
      */
     private int size;
 
+    /**
+     * Node that was accessed last ("finger") and its index.
+     * Head (index -1) and tail (index size) are valid fingers as well.
+     */
+    private ListNode finger;
+    private int fingerIndex;
+
 
     /**
      * Default constructor.
@@ -49,6 +64,90 @@ public class DoublyLinkedList<E> extends AbstractList<E> implements Serializable
 
         // Initial size
         size = 0;
+
+        finger = head;
+        fingerIndex = -1;
+    }
+
+
+    /**
+     * Returns node at the given index.
+     * Walks from the head, the tail or the finger - whichever is the closest to the index,
+     * then moves the finger to the found node.
+     *
+     * @param index index of the node, <code> -1 </code> stands for head and <code> size </code> for tail.
+     * @return node at the specified index.
+     */
+    private ListNode node(int index) {
+
+        ListNode node;
+        int position;
+
+        int fromHead = index + 1;
+        int fromTail = size - index;
+        int fromFinger = Math.abs(index - fingerIndex);
+
+        if (fromFinger <= fromHead && fromFinger <= fromTail) {
+            node = finger;
+            position = fingerIndex;
+        } else if (fromHead <= fromTail) {
+            node = head;
+            position = -1;
+        } else {
+            node = tail;
+            position = size;
+        }
+
+        while (position < index) {
+            node = node.next;
+            position++;
+        }
+        while (position > index) {
+            node = node.prev;
+            position--;
+        }
+
+        finger = node;
+        fingerIndex = index;
+        return node;
+    }
+
+
+    /**
+     * Links a new node with the specified value right before the given node.
+     * @param element value of the new node.
+     * @param successor node before which new node will be linked.
+     * @return inserted node.
+     */
+    private ListNode linkBefore(E element, ListNode successor) {
+
+        ListNode node = new ListNode(element, successor.prev, successor);
+
+        successor.prev.next = node;
+        successor.prev = node;
+
+        size++;
+        modCount++;
+        return node;
+    }
+
+
+    /**
+     * Unlinks the given node from the list.
+     * @param node node to be removed. Must not be a sentinel.
+     * @return value of the removed node.
+     */
+    private E unlink(ListNode node) {
+
+        node.next.prev = node.prev;
+        node.prev.next = node.next;
+
+        node.next = null;
+        node.prev = null;
+
+        size--;
+        modCount++;
+        return node.data;
     }
 
 
@@ -65,12 +164,7 @@ public class DoublyLinkedList<E> extends AbstractList<E> implements Serializable
         if (index < 0 || index >= size)
             throw new IndexOutOfBoundsException("Illegal index: " + index + "; size: " + size);
 
-        ListNode node = head;
-
-        for (int i = -1; i < index ; i++) {
-            node = node.next;
-        }
-        return node.data;
+        return node(index).data;
     }
 
 
@@ -87,19 +181,14 @@ public class DoublyLinkedList<E> extends AbstractList<E> implements Serializable
             throw new IllegalArgumentException("null is not allowed");
 
         try {
-            ListNode node = new ListNode(element);
-
-            node.next = tail;
-            node.prev = tail.prev;
-
-            tail.prev.next = node;
-            tail.prev = node;
-
+            linkBefore(element, tail);
         } catch (OutOfMemoryError e) {
             return false;
         }
 
-        size++;
+        // Tail moved one position further.
+        if (fingerIndex == size - 1) fingerIndex = size;
+
         return true;
     }
 
@@ -150,13 +239,9 @@ public class DoublyLinkedList<E> extends AbstractList<E> implements Serializable
         for (int i = 0; i < size ; i++) {
             node = node.next;
             if (node.data.equals(element)) {
-                node.next.prev = node.prev;
-                node.prev.next = node.next;
-
-                node.next = null;
-                node.prev = null;
-
-                size--;
+                finger = node.prev;
+                fingerIndex = i - 1;
+                unlink(node);
                 return;
             }
         }
@@ -177,21 +262,11 @@ public class DoublyLinkedList<E> extends AbstractList<E> implements Serializable
         if (index < 0 || index >= size)
             throw new IndexOutOfBoundsException("Illegal index: " + index + "; size: " + size);
 
-        ListNode node = head;
+        ListNode node = node(index);
 
-        for (int i = -1; i < index ; i++) {
-            node = node.next;
-        }
-
-        node.next.prev = node.prev;
-        node.prev.next = node.next;
-
-        node.next = null;
-        node.prev = null;
-
-        size--;
-
-        return node.data;
+        // Finger moves to the node that takes place of the removed one.
+        finger = node.next;
+        return unlink(node);
     }
 
 
@@ -214,11 +289,7 @@ public class DoublyLinkedList<E> extends AbstractList<E> implements Serializable
             throw new IndexOutOfBoundsException("Illegal index: " + index + "; size: " + size);
 
 
-        ListNode node = head;
-
-        for (int i = -1; i < index ; i++) {
-            node = node.next;
-        }
+        ListNode node = node(index);
 
         E oldData = node.data;
 
@@ -233,34 +304,180 @@ public class DoublyLinkedList<E> extends AbstractList<E> implements Serializable
      * @throws IllegalArgumentException when attempting to insert null value.
      * @throws IndexOutOfBoundsException when trying to access an element outsides structure's bounds.
      *
-     * @param index    index at which new element will be inserted.
+     * @param index    index at which new element will be inserted, <code> size </code> appends the element.
      * @param element  value of the new element.
      */
     public void add(int index, E element) {
 
 
-        if (index < 0 || index >= size)
+        if (index < 0 || index > size)
             throw new IndexOutOfBoundsException("Illegal index: " + index + "; size: " + size);
 
         if (element == null)
             throw new IllegalArgumentException("null is not allowed");
 
 
-        ListNode node = head;
+        finger = linkBefore(element, node(index));
+    }
 
-        for (int i = -1; i < index ; i++) {
-            node = node.next;
+
+    /**
+     * Returns a list iterator that walks the nodes starting at the specified index.
+     *
+     * @throws IndexOutOfBoundsException when trying to access an element outsides structure's bounds.
+     *
+     * @param index index of the first element to be returned by <code> next() </code>.
+     * @return list iterator over the elements of this list.
+     */
+    @Override
+    public ListIterator<E> listIterator(int index) {
+
+        if (index < 0 || index > size)
+            throw new IndexOutOfBoundsException("Illegal index: " + index + "; size: " + size);
+
+        return new ListItr(node(index), index);
+    }
+
+
+    /**
+     * Node-walking list iterator.
+     * Each step follows a single link, so a full pass over the list is O(n).
+     * @author Anton Hrytsyk
+     */
+    private class ListItr implements ListIterator<E> {
+
+        /**
+         * Node that will be returned by the next call to <code> next() </code>.
+         */
+        private ListNode next;
+
+        /**
+         * Index of the <code> next </code> node.
+         */
+        private int nextIndex;
+
+        /**
+         * Node that was returned last, <code> null </code> if it was removed or nothing was returned yet.
+         */
+        private ListNode lastReturned;
+
+        /**
+         * modCount value this iterator expects the list to have.
+         */
+        private int expectedModCount = modCount;
+
+        /**
+         * Creates an iterator positioned before the given node.
+         * @param next node that will be returned first.
+         * @param index index of that node.
+         */
+        ListItr(ListNode next, int index) {
+            this.next = next;
+            this.nextIndex = index;
         }
 
-        ListNode nodeToAdd = new ListNode(element);
+        @Override
+        public boolean hasNext() {
+            return nextIndex < size;
+        }
 
-        nodeToAdd.next = node;
-        nodeToAdd.prev = node.prev;
+        @Override
+        public E next() {
+            checkForComodification();
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            lastReturned = next;
+            next = next.next;
+            nextIndex++;
+            return lastReturned.data;
+        }
 
-        node.prev.next = nodeToAdd;
-        node.prev = nodeToAdd;
+        @Override
+        public boolean hasPrevious() {
+            return nextIndex > 0;
+        }
 
-        size++;
+        @Override
+        public E previous() {
+            checkForComodification();
+            if (!hasPrevious())
+                throw new NoSuchElementException();
+
+            next = next.prev;
+            lastReturned = next;
+            nextIndex--;
+            return lastReturned.data;
+        }
+
+        @Override
+        public int nextIndex() {
+            return nextIndex;
+        }
+
+        @Override
+        public int previousIndex() {
+            return nextIndex - 1;
+        }
+
+        @Override
+        public void remove() {
+            checkForComodification();
+            if (lastReturned == null)
+                throw new IllegalStateException();
+
+            if (next == lastReturned)
+                next = lastReturned.next;
+            else
+                nextIndex--;
+
+            unlink(lastReturned);
+            lastReturned = null;
+            resetFinger();
+            expectedModCount = modCount;
+        }
+
+        @Override
+        public void set(E element) {
+            if (element == null)
+                throw new IllegalArgumentException("null is not allowed");
+            if (lastReturned == null)
+                throw new IllegalStateException();
+            checkForComodification();
+
+            lastReturned.data = element;
+        }
+
+        @Override
+        public void add(E element) {
+            if (element == null)
+                throw new IllegalArgumentException("null is not allowed");
+            checkForComodification();
+
+            linkBefore(element, next);
+            nextIndex++;
+            lastReturned = null;
+            resetFinger();
+            expectedModCount = modCount;
+        }
+
+        /**
+         * Fails fast if the list was structurally modified outside of this iterator.
+         */
+        private void checkForComodification() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+    }
+
+
+    /**
+     * Moves finger back to the head node.
+     * Used after modifications that don't track the finger's index.
+     */
+    private void resetFinger() {
+        finger = head;
+        fingerIndex = -1;
     }
 
 
@@ -0,0 +1,313 @@
+package dataStructures;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Binary Search Tree specialized for primitive <code> int </code> keys.
+ * Mirrors {@link BinarySearchTree}: the tree is unbalanced and doesn't allow duplicate keys.
+ *
+ * Nodes are not objects, they are slots in parallel <code> int </code> arrays (key, left child, right child),
+ * so neither insertion nor lookup box the key or allocate a node object.
+ * Slots freed by deletion are chained into a free list and reused.
+ *
+ * @author Anton Hrytsyk
+ */
+public class IntBinarySearchTree implements Serializable {
+
+    /**
+     * Used during deserialization to confirm that objects are compatible.
+     * @value 1L
+     */
+    public static final long serialVersionUID = 1L;
+
+    /**
+     * Marks absence of a node.
+     */
+    private static final int NIL = -1;
+
+    /**
+     * Initial number of node slots.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Node storage. Node <code> i </code> is described by <code> keys[i], left[i], right[i] </code>.
+     * Free slots are linked through <code> left </code>.
+     */
+    private int[] keys, left, right;
+
+    /**
+     * Index of the root node.
+     */
+    private int root;
+
+    /**
+     * Head of the free slot list.
+     */
+    private int free;
+
+    /**
+     * Number of slots that were ever used.
+     */
+    private int used;
+
+    /**
+     * Number of keys in the tree.
+     */
+    private int size;
+
+
+    /**
+     * Creates an empty tree.
+     */
+    public IntBinarySearchTree() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty tree with room for the specified number of keys.
+     * @param capacity number of keys the tree can hold before growing.
+     */
+    public IntBinarySearchTree(int capacity) {
+
+        capacity = Math.max(capacity, 1);
+        keys = new int[capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+
+        root = NIL;
+        free = NIL;
+        used = 0;
+        size = 0;
+    }
+
+
+    /**
+     * Performs insertion of the specified value into the tree.
+     * @param key element that needs no be inserted into the tree.
+     * @return <code> true </code>  if element was successfully inserted,
+     *         <code> false </code> if element is already in the tree.
+     */
+    public boolean insert(int key) {
+
+        if (root == NIL) {
+            root = newNode(key);
+            return true;
+        }
+
+        int node = root;
+        while (true) {
+
+            int data = keys[node];
+            if (data == key) return false;
+
+            if (key < data) {
+                if (left[node] == NIL) {
+                    int child = newNode(key);
+                    left[node] = child;
+                    return true;
+                }
+                node = left[node];
+            } else {
+                if (right[node] == NIL) {
+                    int child = newNode(key);
+                    right[node] = child;
+                    return true;
+                }
+                node = right[node];
+            }
+        }
+    }
+
+
+    /**
+     * This function determines if key is currently an element of the tree.
+     * @param key value that needs to be checked.
+     * @return <code> true </code>  if key is an element of the tree.
+     *         <code> false </code> if key is not an element of the tree.
+     */
+    public boolean contains(int key) {
+
+        int node = root;
+        while (node != NIL) {
+            int data = keys[node];
+            if (data == key) return true;
+            node = (key < data) ? left[node] : right[node];
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Performs delete operation.
+     * A node with two children takes the smallest key of its right subtree, the same way {@link BinarySearchTree} does.
+     *
+     * @param key element that needs to be deleted
+     * @return <code> true </code>  if element was deleted,
+     *         <code> false </code> if element is not in the tree.
+     */
+    public boolean delete(int key) {
+
+        int parent = NIL;
+        int node = root;
+
+        while (node != NIL && keys[node] != key) {
+            parent = node;
+            node = (key < keys[node]) ? left[node] : right[node];
+        }
+
+        if (node == NIL) return false;
+
+        if (left[node] != NIL && right[node] != NIL) {
+
+            // Find the smallest node in the right subtree and move its key up.
+            int successorParent = node;
+            int successor = right[node];
+            while (left[successor] != NIL) {
+                successorParent = successor;
+                successor = left[successor];
+            }
+
+            keys[node] = keys[successor];
+            parent = successorParent;
+            node = successor;
+        }
+
+        // At this point the node has at most one child.
+        int child = (left[node] != NIL) ? left[node] : right[node];
+
+        if (parent == NIL)              root = child;
+        else if (left[parent] == node)  left[parent] = child;
+        else                            right[parent] = child;
+
+        releaseNode(node);
+        return true;
+    }
+
+
+    /**
+     * Returns the smallest value in the tree.
+     * @throws NoSuchElementException if the tree is empty.
+     * @return the smallest value in the tree.
+     */
+    public int min() {
+
+        if (root == NIL)
+            throw new NoSuchElementException("tree is empty");
+
+        int node = root;
+        while (left[node] != NIL) node = left[node];
+        return keys[node];
+    }
+
+
+    /**
+     * Returns the biggest element in the tree.
+     * @throws NoSuchElementException if the tree is empty.
+     * @return the biggest element in the tree.
+     */
+    public int max() {
+
+        if (root == NIL)
+            throw new NoSuchElementException("tree is empty");
+
+        int node = root;
+        while (right[node] != NIL) node = right[node];
+        return keys[node];
+    }
+
+
+    /**
+     * Returns the number of keys in the tree.
+     * @return number of keys in the tree.
+     */
+    public int size() {
+        return size;
+    }
+
+
+    /**
+     * Returns all keys in the sorted order.
+     * Uses an explicit stack, so degenerate (list-like) trees don't overflow the call stack.
+     * @return sorted array of keys.
+     */
+    public int[] toSortedArray() {
+
+        int[] out = new int[size];
+        int[] stack = new int[Math.max(size, 1)];
+        int top = 0, count = 0;
+        int node = root;
+
+        while (node != NIL || top > 0) {
+            while (node != NIL) {
+                stack[top++] = node;
+                node = left[node];
+            }
+            node = stack[--top];
+            out[count++] = keys[node];
+            node = right[node];
+        }
+
+        return out;
+    }
+
+
+    /**
+     * This function prints out all elements of the tree in the sorted order.
+     */
+    public void printInOrder() {
+        System.out.println(Arrays.toString(toSortedArray()));
+    }
+
+
+    /**
+     * Takes a slot for a new leaf node, reusing freed slots first.
+     * @param key key of the new node.
+     * @return index of the new node.
+     */
+    private int newNode(int key) {
+
+        int node;
+        if (free != NIL) {
+            node = free;
+            free = left[node];
+        } else {
+            if (used == keys.length) grow();
+            node = used++;
+        }
+
+        keys[node] = key;
+        left[node] = NIL;
+        right[node] = NIL;
+
+        size++;
+        return node;
+    }
+
+
+    /**
+     * Puts the slot of a deleted node on the free list.
+     * @param node index of the deleted node.
+     */
+    private void releaseNode(int node) {
+        left[node] = free;
+        right[node] = NIL;
+        free = node;
+        size--;
+    }
+
+
+    /**
+     * Doubles the node storage.
+     */
+    private void grow() {
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+    }
+
+}
@@ -0,0 +1,231 @@
+package dataStructures;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive <code> int </code> values.
+ * Backed by a single <code> int[] </code>, so adding or reading a value never boxes it.
+ *
+ * @author Anton Hrytsyk
+ */
+public class IntList implements Serializable {
+
+    /**
+     * Used during deserialization to confirm that objects are compatible.
+     * @value 1L
+     */
+    public static final long serialVersionUID = 1L;
+
+    /**
+     * Initial capacity of the list.
+     */
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * Stored values, only the first <code> size </code> are in use.
+     */
+    private int[] data;
+
+    /**
+     * Number of stored values.
+     */
+    private int size;
+
+
+    /**
+     * Creates an empty list.
+     */
+    public IntList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty list with the specified capacity.
+     * @param capacity number of values the list can hold before growing.
+     */
+    public IntList(int capacity) {
+
+        if (capacity < 0)
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+
+        data = new int[capacity];
+        size = 0;
+    }
+
+
+    /**
+     * Appends value to the end of the list.
+     * @param value value to be added.
+     */
+    public void add(int value) {
+        if (size == data.length) grow(size + 1);
+        data[size++] = value;
+    }
+
+
+    /**
+     * Inserts value at the specific index.
+     *
+     * @throws IndexOutOfBoundsException when trying to access an element outsides structure's bounds.
+     *
+     * @param index index at which new value will be inserted, <code> size </code> appends the value.
+     * @param value value to be inserted.
+     */
+    public void add(int index, int value) {
+
+        if (index < 0 || index > size)
+            throw new IndexOutOfBoundsException("Illegal index: " + index + "; size: " + size);
+
+        if (size == data.length) grow(size + 1);
+
+        System.arraycopy(data, index, data, index + 1, size - index);
+        data[index] = value;
+        size++;
+    }
+
+
+    /**
+     * Returns value at the given index.
+     *
+     * @throws IndexOutOfBoundsException if attempting to select element outside structure's bounds.
+     *
+     * @param index index of the value.
+     * @return value at the specified index.
+     */
+    public int get(int index) {
+        checkIndex(index);
+        return data[index];
+    }
+
+
+    /**
+     * Sets value at the specified index.
+     *
+     * @throws IndexOutOfBoundsException when trying to access an element outsides structure's bounds.
+     *
+     * @param index index of the value.
+     * @param value new value.
+     * @return old value at that index.
+     */
+    public int set(int index, int value) {
+        checkIndex(index);
+        int old = data[index];
+        data[index] = value;
+        return old;
+    }
+
+
+    /**
+     * Removes value at the specified index.
+     *
+     * @throws IndexOutOfBoundsException when trying to access an element outsides structure's bounds.
+     *
+     * @param index index at which value will be removed.
+     * @return removed value.
+     */
+    public int removeAt(int index) {
+        checkIndex(index);
+        int old = data[index];
+        System.arraycopy(data, index + 1, data, index, size - index - 1);
+        size--;
+        return old;
+    }
+
+
+    /**
+     * Returns index of the first occurrence of the value.
+     * @param value value to search for.
+     * @return index of the value or -1 if it isn't found.
+     */
+    public int indexOf(int value) {
+        for (int i = 0; i < size; i++)
+            if (data[i] == value) return i;
+        return -1;
+    }
+
+
+    /**
+     * Checks whether the list contains the value.
+     * @param value value to search for.
+     * @return <code> true </code> if the list contains the value.
+     */
+    public boolean contains(int value) {
+        return indexOf(value) >= 0;
+    }
+
+
+    /**
+     * Size accessor.
+     * @return structure's size.
+     */
+    public int size() {
+        return size;
+    }
+
+
+    /**
+     * Checks whether the list has no values.
+     * @return <code> true </code> if the list is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+
+    /**
+     * Removes all values from the list, keeping its capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+
+    /**
+     * Sorts the values in ascending order.
+     */
+    public void sort() {
+        Arrays.sort(data, 0, size);
+    }
+
+
+    /**
+     * Returns a copy of the stored values.
+     * @return array that contains all values of the list.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+
+    /**
+     * String value that represents the structure.
+     * @return String that contains all values of the list.
+     */
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+
+    /**
+     * Grows the backing array by half, or to the minimum capacity if that is bigger.
+     * @param minCapacity required capacity.
+     */
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, data.length + (data.length >> 1));
+        data = Arrays.copyOf(data, capacity);
+    }
+
+
+    /**
+     * Validates that index is within structure's bounds.
+     * @param index index to validate.
+     * @throws IndexOutOfBoundsException if attempting to select element outside structure's bounds.
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Illegal index: " + index + "; size: " + size);
+    }
+
+}
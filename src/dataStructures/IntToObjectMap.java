@@ -0,0 +1,227 @@
+package dataStructures;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Map from primitive <code> int </code> keys to objects, for trie nodes keyed by token ids.
+ *
+ * Unlike {@link CharToObjectMap}, nodes keyed by ids can have hundreds of thousands of children (the first token
+ * of every phrase hangs off the root), so sorted insertion would be quadratic. Entries are instead kept densely
+ * in insertion order in parallel arrays, which {@link #keyAt(int)} and {@link #valueAt(int)} expose by position.
+ * Small maps are scanned linearly; once a map grows past <code> LINEAR_SCAN_LIMIT </code> entries an open addressing
+ * hash table of entry positions is built on top of the arrays.
+ *
+ * Entries can't be removed.
+ *
+ * @param <V> type of the values.
+ *
+ * @author Anton Hrytsyk
+ */
+public class IntToObjectMap<V> implements Serializable {
+
+    /**
+     * Used during deserialization to confirm that objects are compatible.
+     * @value 1L
+     */
+    public static final long serialVersionUID = 1L;
+
+    /**
+     * Shared storage of empty maps, so leaves don't allocate arrays.
+     */
+    private static final int[] EMPTY_KEYS = {};
+    private static final Object[] EMPTY_VALUES = {};
+
+    /**
+     * Up to this many entries lookups scan the keys instead of hashing.
+     */
+    private static final int LINEAR_SCAN_LIMIT = 8;
+
+    /**
+     * Keys and values in insertion order, only the first <code> size </code> are in use.
+     */
+    private int[] keys;
+    private Object[] values;
+
+    /**
+     * Number of entries in the map.
+     */
+    private int size;
+
+    /**
+     * Linear probing table of entry positions plus one, 0 marks a free slot.
+     * Its length is a power of two at least twice the number of entries, <code> null </code> for small maps.
+     */
+    private int[] table;
+
+
+    /**
+     * Creates an empty map.
+     */
+    public IntToObjectMap() {
+        keys = EMPTY_KEYS;
+        values = EMPTY_VALUES;
+        size = 0;
+    }
+
+
+    /**
+     * Returns value associated with the key.
+     * @param key key to look up.
+     * @return associated value or <code> null </code> if the key isn't in the map.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int index = indexOf(key);
+        return (index >= 0) ? (V) values[index] : null;
+    }
+
+
+    /**
+     * Checks whether the key is in the map.
+     * @param key key to look up.
+     * @return <code> true </code> if the map contains the key.
+     */
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+
+    /**
+     * Associates value with the key.
+     * @param key   key of the entry.
+     * @param value value of the entry.
+     * @return previous value associated with the key or <code> null </code> if there was none.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+
+        int index = indexOf(key);
+
+        if (index >= 0) {
+            V old = (V) values[index];
+            values[index] = value;
+            return old;
+        }
+
+        if (size == keys.length) {
+            int capacity = (size == 0) ? 2 : size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        keys[size] = key;
+        values[size] = value;
+        size++;
+
+        if (table != null && size * 2 <= table.length) insert(size - 1);
+        else if (size > LINEAR_SCAN_LIMIT) rehash();
+
+        return null;
+    }
+
+
+    /**
+     * Returns key at the given position, positions follow insertion order.
+     * @param index position of the entry, from 0 to <code> size() - 1 </code>.
+     * @return key at the position.
+     */
+    public int keyAt(int index) {
+        return keys[index];
+    }
+
+
+    /**
+     * Returns value at the given position.
+     * @param index position of the entry, from 0 to <code> size() - 1 </code>.
+     * @return value at the position.
+     */
+    @SuppressWarnings("unchecked")
+    public V valueAt(int index) {
+        return (V) values[index];
+    }
+
+
+    /**
+     * Returns the number of entries in the map.
+     * @return number of entries in the map.
+     */
+    public int size() {
+        return size;
+    }
+
+
+    /**
+     * Checks whether the map has no entries.
+     * @return <code> true </code> if the map is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+
+    /**
+     * Shrinks the entry arrays to the number of entries.
+     */
+    public void trimToSize() {
+        if (size < keys.length) {
+            keys = (size == 0) ? EMPTY_KEYS : Arrays.copyOf(keys, size);
+            values = (size == 0) ? EMPTY_VALUES : Arrays.copyOf(values, size);
+        }
+    }
+
+
+    /**
+     * Finds position of the key.
+     * @param key key to look up.
+     * @return position of the entry, -1 if the key isn't in the map.
+     */
+    private int indexOf(int key) {
+
+        if (table == null) {
+            for (int i = 0; i < size; i++)
+                if (keys[i] == key) return i;
+            return -1;
+        }
+
+        int mask = table.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+            if (entry == 0) return -1;
+            if (keys[entry - 1] == key) return entry - 1;
+        }
+    }
+
+
+    /**
+     * Adds an entry to the hash table, the table must have a free slot.
+     * @param index position of the entry.
+     */
+    private void insert(int index) {
+        int mask = table.length - 1;
+        int slot = hash(keys[index]) & mask;
+        while (table[slot] != 0) slot = (slot + 1) & mask;
+        table[slot] = index + 1;
+    }
+
+
+    /**
+     * Rebuilds the hash table with room for twice the entries.
+     */
+    private void rehash() {
+        table = new int[Integer.highestOneBit(size) * 4];
+        for (int i = 0; i < size; i++) insert(i);
+    }
+
+
+    /**
+     * Spreads keys over the table, sequential ids would otherwise fill neighbouring slots.
+     * @param key key to hash.
+     * @return hash of the key.
+     */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+}
@@ -0,0 +1,197 @@
+package dataStructures;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear histogram of non-negative values (usually latencies in nanoseconds), modelled after HdrHistogram.
+ *
+ * Values below 256 get a bucket each, larger values are grouped into buckets whose width doubles
+ * every power of two, with 128 buckets per power of two. That keeps the relative error of every
+ * reported value below 1% while the whole <code> long </code> range fits into about 7.5 thousand counters.
+ *
+ * Recording is a single atomic increment, so one histogram can be shared by many threads.
+ *
+ * @author Anton Hrytsyk
+ */
+public final class LatencyHistogram {
+
+    /**
+     * Number of buckets per power of two is <code> 2^SUB_BUCKET_BITS </code>.
+     */
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Values below this limit are counted exactly.
+     */
+    private static final int LINEAR_LIMIT = SUB_BUCKET_COUNT * 2;
+
+    /**
+     * Total number of buckets needed to cover all non-negative <code> long </code> values.
+     */
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    /**
+     * Number of recorded values per bucket.
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * Number of recorded values, their sum and the largest one.
+     */
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+
+    /**
+     * Records a value.
+     * @throws IllegalArgumentException if value is negative.
+     * @param value value to record.
+     */
+    public void record(long value) {
+
+        if (value < 0)
+            throw new IllegalArgumentException("negative value: " + value);
+
+        counts.incrementAndGet(indexOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // Another thread updated max, retry with its value.
+        }
+    }
+
+
+    /**
+     * Adds all values recorded by another histogram to this one.
+     * @param other histogram to add.
+     */
+    public void add(LatencyHistogram other) {
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) counts.addAndGet(i, c);
+        }
+
+        count.addAndGet(other.count.get());
+        sum.addAndGet(other.sum.get());
+
+        long otherMax = other.max.get(), current;
+        while (otherMax > (current = max.get()) && !max.compareAndSet(current, otherMax)) {
+            // Another thread updated max, retry with its value.
+        }
+    }
+
+
+    /**
+     * Returns the value below which the given percentage of recorded values falls.
+     * The value is reported as the upper edge of its bucket, so it never understates the latency.
+     *
+     * @param percentile percentage between 0 and 100, e.g. 99.9.
+     * @return value at the percentile, 0 if nothing was recorded.
+     */
+    public long percentile(double percentile) {
+
+        long total = count.get();
+        if (total == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * total));
+        long seen = 0;
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank)
+                return Math.min(highestValueAt(i), max.get());
+        }
+
+        return max.get();
+    }
+
+
+    /**
+     * Returns the number of recorded values.
+     * @return number of recorded values.
+     */
+    public long count() {
+        return count.get();
+    }
+
+
+    /**
+     * Returns the largest recorded value.
+     * @return largest recorded value, 0 if nothing was recorded.
+     */
+    public long max() {
+        return max.get();
+    }
+
+
+    /**
+     * Returns the mean of the recorded values.
+     * @return mean, 0 if nothing was recorded.
+     */
+    public double mean() {
+        long total = count.get();
+        return (total == 0) ? 0 : (double) sum.get() / total;
+    }
+
+
+    /**
+     * Forgets all recorded values.
+     * Not atomic with respect to concurrent recording.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) counts.set(i, 0);
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+
+    /**
+     * String value that represents the histogram.
+     * @return summary with count, mean, main percentiles and max.
+     */
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%.1f p50=%d p99=%d p99.9=%d max=%d",
+                count(), mean(), percentile(50), percentile(99), percentile(99.9), max());
+    }
+
+
+    /**
+     * Maps value to its bucket.
+     * @param value non-negative value.
+     * @return index of the bucket.
+     */
+    private static int indexOf(long value) {
+
+        if (value < LINEAR_LIMIT)
+            return (int) value;
+
+        // Shift that brings the value into [SUB_BUCKET_COUNT, 2 * SUB_BUCKET_COUNT).
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKET_COUNT + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+    }
+
+
+    /**
+     * Returns the largest value that maps to the bucket.
+     * @param index index of the bucket.
+     * @return upper edge of the bucket.
+     */
+    private static long highestValueAt(int index) {
+
+        if (index < LINEAR_LIMIT)
+            return index;
+
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long subBucket = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+}
@@ -0,0 +1,347 @@
+package dataStructures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Read-only succinct copy of an {@link AutoCompleteDictionaryTrie}, encoded with LOUDS (level-order unary degree sequence).
+ *
+ * The shape of the trie is a single bit vector: <code> 10 </code> for a virtual super-root, then for every node in level
+ * order one <code> 1 </code> per child followed by a <code> 0 </code>, 2n + 1 bits for n nodes. Node ids are level-order
+ * positions, the root is 0, and navigation is arithmetic over {@link RankSelectBitVector rank and select}:
+ * <pre>
+ *     first child of node k   select0(k) - k
+ *     number of children      distance from select0(k) to the next 0, minus one
+ *     parent of node k        select1(k) - k - 1
+ * </pre>
+ * Edge labels are stored as one byte per node, an index into the sorted alphabet of the dictionary, and a second bit
+ * vector marks the nodes that end a word. That comes to about 11 bits per node plus the rank and select tables,
+ * against tens of bytes per node for the pointer-based trie.
+ *
+ * Lookups and completions give the same results in the same order as the trie the copy was made from. Level order makes
+ * completion particularly cheap: the descendants of a node on each level are a contiguous range of ids, so the
+ * traversal walks ranges instead of queueing nodes. Lookups pay for the compactness with a select per level.
+ *
+ * The alphabet is limited to 256 distinct characters. The trie is immutable and can be read by any number of threads.
+ *
+ * @author Anton Hrytsyk
+ */
+public final class LoudsTrie {
+
+    /**
+     * Most distinct characters a single byte label can tell apart.
+     */
+    private static final int MAX_ALPHABET = 256;
+
+    /**
+     * Up to this many children are scanned instead of binary searched.
+     */
+    private static final int LINEAR_SCAN_LIMIT = 8;
+
+    /**
+     * Shape of the trie.
+     */
+    private final RankSelectBitVector louds;
+
+    /**
+     * Marks the nodes that end a word, by node id.
+     */
+    private final RankSelectBitVector words;
+
+    /**
+     * Index into the alphabet of the character on the edge from the parent, by node id. Unused for the root.
+     */
+    private final byte[] labels;
+
+    /**
+     * Distinct characters of the dictionary in ascending order, so label order is character order.
+     */
+    private final char[] alphabet;
+
+    /**
+     * Number of nodes.
+     */
+    private final int nodeCount;
+
+    /**
+     * Number of words.
+     */
+    private final int size;
+
+
+    /**
+     * Encodes the trie.
+     *
+     * @throws IllegalArgumentException if the trie is too large or uses more than 256 distinct characters.
+     *
+     * @param trie trie to encode, it isn't referenced afterwards.
+     */
+    public LoudsTrie(AutoCompleteDictionaryTrie trie) {
+
+        long count = trie.statistics().getNodes();
+        if (2 * count + 1 > Integer.MAX_VALUE - Long.SIZE)
+            throw new IllegalArgumentException("trie has too many nodes for LOUDS encoding: " + count);
+
+        nodeCount = (int) count;
+        size = trie.size();
+
+        int bitCount = 2 * nodeCount + 1;
+        long[] shape = new long[(bitCount + Long.SIZE - 1) >>> 6];
+        long[] ends = new long[(nodeCount + Long.SIZE - 1) >>> 6];
+        char[] chars = new char[nodeCount];
+
+        // The super-root: a single child, the root, then the end of its children.
+        shape[0] = 1L;
+        int[] position = {2, 0};
+        trie.levelOrder((parent, label, isWord, depth, childCount) -> {
+            int node = position[1]++;
+            chars[node] = label;
+            if (isWord) ends[node >>> 6] |= 1L << node;
+            for (int i = 0; i < childCount; i++, position[0]++)
+                shape[position[0] >>> 6] |= 1L << position[0];
+            position[0]++;
+        });
+
+        louds = new RankSelectBitVector(shape, bitCount);
+        words = new RankSelectBitVector(ends, nodeCount);
+        alphabet = alphabetOf(chars);
+        labels = new byte[nodeCount];
+        for (int node = 1; node < nodeCount; node++)
+            labels[node] = (byte) Arrays.binarySearch(alphabet, chars[node]);
+    }
+
+    /**
+     * Builds the LOUDS trie from words, the intermediate pointer-based trie is garbage once this returns.
+     * @param words words that will be stored in the trie.
+     */
+    public LoudsTrie(Iterator<String> words) {
+        this(new AutoCompleteDictionaryTrie(words));
+    }
+
+
+    /**
+     * Checks whether parameter is a valid word in the trie.
+     * @param text text to check.
+     * @return <code> true  </code> if trie stores the parameter.
+     *         <code> false </code> if trie doesn't store  the parameter.
+     */
+    public boolean isWord(String text) {
+        int node = find(text.toLowerCase());
+        return node >= 0 && words.get(node);
+    }
+
+
+    /**
+     * Checks whether any word starts with the text.
+     * @param text prefix to check.
+     * @return <code> true </code> if at least one word starts with the text.
+     */
+    public boolean isPrefix(String text) {
+        return find(text.toLowerCase()) >= 0;
+    }
+
+
+    /**
+     * Generates completions, like {@link AutoCompleteDictionaryTrie#produceCompletions(String, int)}.
+     * @param text             word that needs to be auto-completed.
+     * @param numOfCompletions number of completions that needs to be generated.
+     * @return list with at most the specified number of completions.
+     */
+    public List<String> produceCompletions(String text, int numOfCompletions) {
+        List<String> completions = new ArrayList<>();
+        produceCompletions(text, numOfCompletions, completions::add);
+        return completions;
+    }
+
+
+    /**
+     * Generates completions and hands them over as they are found,
+     * like {@link AutoCompleteDictionaryTrie#produceCompletions(String, int, Consumer)}.
+     * @param text             word that needs to be auto-completed.
+     * @param numOfCompletions maximum number of completions that will be passed to the consumer.
+     * @param consumer         receives the completions.
+     * @return number of completions passed to the consumer.
+     */
+    public int produceCompletions(String text, int numOfCompletions, Consumer<String> consumer) {
+
+        String prefix = text.toLowerCase();
+        int start = find(prefix);
+        if (start < 0 || numOfCompletions <= 0) return 0;
+
+        // Descendants of the start node on one level are the ids [low, high), in the order a queue would visit them.
+        int low = start, high = start + 1;
+        int depth = prefix.length();
+        int produced = 0;
+
+        while (low < high) {
+            for (int node = low; node < high; node++) {
+                if (!words.get(node)) continue;
+                consumer.accept(textOf(node, prefix, depth));
+                if (++produced == numOfCompletions) return produced;
+            }
+            low = firstChild(low);
+            high = firstChild(high);
+            depth++;
+        }
+
+        return produced;
+    }
+
+
+    /**
+     * Returns the number of words in the trie.
+     * @return number of words in the trie.
+     */
+    public int size() {
+        return size;
+    }
+
+
+    /**
+     * Returns the number of nodes, including the root.
+     * @return number of nodes.
+     */
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+
+    /**
+     * Returns the memory the encoding takes: both bit vectors with their tables, the labels and the alphabet.
+     * @return size in bytes, object headers aside.
+     */
+    public long sizeInBytes() {
+        return louds.sizeInBytes() + words.sizeInBytes() + labels.length + (long) alphabet.length * Character.BYTES;
+    }
+
+
+    /**
+     * Returns the average memory per node.
+     * @return size in bits divided by the number of nodes.
+     */
+    public double bitsPerNode() {
+        return sizeInBytes() * 8.0 / nodeCount;
+    }
+
+
+    /**
+     * Follows the text from the root.
+     * @param text lower-cased text.
+     * @return id of the node, -1 if no word starts with the text.
+     */
+    private int find(String text) {
+
+        int node = 0;
+        for (int i = 0; i < text.length() && node >= 0; i++) {
+            int label = Arrays.binarySearch(alphabet, text.charAt(i));
+            node = (label < 0) ? -1 : child(node, label);
+        }
+        return node;
+    }
+
+
+    /**
+     * Finds a child by its label, children are sorted by label.
+     * @param node  id of the parent.
+     * @param label index of the character on the edge.
+     * @return id of the child, -1 if there is none.
+     */
+    private int child(int node, int label) {
+
+        int end = louds.select0(node);
+        int low = end - node;
+        int high = low + louds.nextClearBit(end + 1) - end - 2;
+
+        if (high - low < LINEAR_SCAN_LIMIT) {
+            for (int child = low; child <= high; child++) {
+                int l = labels[child] & 0xFF;
+                if (l == label) return child;
+                if (l > label) return -1;
+            }
+            return -1;
+        }
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int l = labels[middle] & 0xFF;
+            if (l < label)      low = middle + 1;
+            else if (l > label) high = middle - 1;
+            else                return middle;
+        }
+        return -1;
+    }
+
+
+    /**
+     * Returns the id of the first child. Children of consecutive nodes are consecutive,
+     * so for a node without children this is where the children of the next node start.
+     * @param node id of the node, <code> nodeCount </code> gives the end of all ids.
+     * @return id of the first child.
+     */
+    private int firstChild(int node) {
+        return louds.select0(node) - node;
+    }
+
+
+    /**
+     * Rebuilds the text of a node from the labels on the path up to a known ancestor.
+     * @param node   id of the node.
+     * @param prefix text of the ancestor the traversal started from.
+     * @param depth  length of the node's text.
+     * @return text of the node.
+     */
+    private String textOf(int node, String prefix, int depth) {
+
+        char[] text = new char[depth];
+        for (int i = depth - 1; i >= prefix.length(); i--) {
+            text[i] = alphabet[labels[node] & 0xFF];
+            node = louds.select1(node) - node - 1;
+        }
+        prefix.getChars(0, prefix.length(), text, 0);
+        return new String(text);
+    }
+
+
+    /**
+     * Collects the distinct labels of all nodes but the root.
+     *
+     * @throws IllegalArgumentException if there are more than 256 of them.
+     *
+     * @param chars labels by node id.
+     * @return distinct labels in ascending order.
+     */
+    private static char[] alphabetOf(char[] chars) {
+
+        boolean[] seen = new boolean[Character.MAX_VALUE + 1];
+        int distinct = 0;
+        for (int node = 1; node < chars.length; node++) {
+            if (!seen[chars[node]]) {
+                seen[chars[node]] = true;
+                distinct++;
+            }
+        }
+
+        if (distinct > MAX_ALPHABET)
+            throw new IllegalArgumentException("LOUDS trie supports at most " + MAX_ALPHABET + " distinct characters: " + distinct);
+
+        char[] alphabet = new char[distinct];
+        for (int c = 0, i = 0; i < distinct; c++)
+            if (seen[c]) alphabet[i++] = (char) c;
+        return alphabet;
+    }
+
+
+    /**
+     * String value that represents the structure.
+     * @return number of words and nodes and the encoded size.
+     */
+    @Override
+    public String toString() {
+        return "LoudsTrie{words=" + size + ", nodes=" + nodeCount + ", bytes=" + sizeInBytes() +
+                ", bitsPerNode=" + String.format("%.1f", bitsPerNode()) + '}';
+    }
+
+}
@@ -0,0 +1,291 @@
+package dataStructures;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Read-only copy of an {@link AutoCompleteDictionaryTrie} kept outside of the Java heap.
+ *
+ * The whole trie is a single direct <code> ByteBuffer </code> holding a table of fixed size node records in level order,
+ * so the children of every node are consecutive records and nodes refer to each other by index instead of by reference.
+ * The garbage collector sees one buffer object instead of millions of nodes, maps, arrays and strings,
+ * so the dictionary adds nothing to marking or copying work no matter how large it gets.
+ * Only the strings of returned completions and a small per-query queue are allocated on the heap.
+ *
+ * Layout of a node record, little-endian or big-endian as the platform prefers:
+ * <pre>
+ *     offset 0   int    index of the parent, -1 for the root
+ *     offset 4   int    index of the first child
+ *     offset 8   char   character on the edge from the parent
+ *     offset 10  char   number of children
+ *     offset 12  int    length of the node's text, the highest bit marks the end of a word
+ * </pre>
+ *
+ * Lookups and completions give the same results in the same order as the trie the copy was made from.
+ * The copy is immutable and can be read by any number of threads. The memory is released when the object
+ * is garbage collected, like with any direct buffer.
+ *
+ * @author Anton Hrytsyk
+ */
+public final class OffHeapTrie {
+
+    /**
+     * Size of a node record, in bytes.
+     */
+    static final int NODE_BYTES = 16;
+
+    /**
+     * Offsets of the fields inside a record.
+     */
+    private static final int PARENT = 0;
+    private static final int FIRST_CHILD = 4;
+    private static final int LABEL = 8;
+    private static final int CHILD_COUNT = 10;
+    private static final int DEPTH = 12;
+
+    /**
+     * Marks the end of a word in the depth field.
+     */
+    private static final int WORD_FLAG = 1 << 31;
+
+    /**
+     * Up to this many children are scanned instead of binary searched.
+     */
+    private static final int LINEAR_SCAN_LIMIT = 8;
+
+    /**
+     * Node table, the root is the first record.
+     */
+    private final ByteBuffer nodes;
+
+    /**
+     * Number of node records.
+     */
+    private final int nodeCount;
+
+    /**
+     * Number of words.
+     */
+    private final int size;
+
+
+    /**
+     * Copies the trie into off-heap memory.
+     *
+     * @throws IllegalArgumentException if the trie is too large for a single buffer.
+     *
+     * @param trie trie to copy, it isn't referenced afterwards.
+     */
+    public OffHeapTrie(AutoCompleteDictionaryTrie trie) {
+
+        long count = trie.statistics().getNodes();
+        if (count * NODE_BYTES > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("trie has too many nodes for off-heap storage: " + count);
+
+        nodeCount = (int) count;
+        size = trie.size();
+        nodes = ByteBuffer.allocateDirect(nodeCount * NODE_BYTES).order(ByteOrder.nativeOrder());
+
+        // Level order puts children of a node right after the children of the nodes before it.
+        int[] next = {0, 1};
+        trie.levelOrder((parent, label, isWord, depth, childCount) -> {
+            int offset = next[0]++ * NODE_BYTES;
+            nodes.putInt(offset + PARENT, parent);
+            nodes.putInt(offset + FIRST_CHILD, next[1]);
+            nodes.putChar(offset + LABEL, label);
+            nodes.putChar(offset + CHILD_COUNT, (char) childCount);
+            nodes.putInt(offset + DEPTH, isWord ? depth | WORD_FLAG : depth);
+            next[1] += childCount;
+        });
+    }
+
+    /**
+     * Builds the off-heap trie from words, the intermediate heap trie is garbage once this returns.
+     * @param words words that will be stored in the trie.
+     */
+    public OffHeapTrie(Iterator<String> words) {
+        this(new AutoCompleteDictionaryTrie(words));
+    }
+
+
+    /**
+     * Checks whether parameter is a valid word in the trie.
+     * @param text text to check.
+     * @return <code> true  </code> if trie stores the parameter.
+     *         <code> false </code> if trie doesn't store  the parameter.
+     */
+    public boolean isWord(String text) {
+        int node = find(text.toLowerCase());
+        return node >= 0 && (nodes.getInt(node * NODE_BYTES + DEPTH) & WORD_FLAG) != 0;
+    }
+
+
+    /**
+     * Generates completions, like {@link AutoCompleteDictionaryTrie#produceCompletions(String, int)}.
+     * @param text             word that needs to be auto-completed.
+     * @param numOfCompletions number of completions that needs to be generated.
+     * @return list with at most the specified number of completions.
+     */
+    public List<String> produceCompletions(String text, int numOfCompletions) {
+        List<String> completions = new ArrayList<>();
+        produceCompletions(text, numOfCompletions, completions::add);
+        return completions;
+    }
+
+
+    /**
+     * Generates completions and hands them over as they are found,
+     * like {@link AutoCompleteDictionaryTrie#produceCompletions(String, int, Consumer)}.
+     * @param text             word that needs to be auto-completed.
+     * @param numOfCompletions maximum number of completions that will be passed to the consumer.
+     * @param consumer         receives the completions.
+     * @return number of completions passed to the consumer.
+     */
+    public int produceCompletions(String text, int numOfCompletions, Consumer<String> consumer) {
+
+        int start = find(text.toLowerCase());
+        if (start < 0 || numOfCompletions <= 0) return 0;
+
+        // Ring buffer of node indices, the level-order queue of the traversal.
+        int[] queue = new int[16];
+        int head = 0, tail = 0;
+        queue[tail++] = start;
+
+        int produced = 0;
+        while (head != tail && produced < numOfCompletions) {
+
+            int node = queue[head];
+            head = (head + 1) & (queue.length - 1);
+            int offset = node * NODE_BYTES;
+
+            if ((nodes.getInt(offset + DEPTH) & WORD_FLAG) != 0) {
+                consumer.accept(textOf(node));
+                produced++;
+            }
+
+            int first = nodes.getInt(offset + FIRST_CHILD);
+            int count = nodes.getChar(offset + CHILD_COUNT);
+            for (int child = first; child < first + count; child++) {
+                queue[tail] = child;
+                tail = (tail + 1) & (queue.length - 1);
+                if (tail == head) {
+                    // Full: unroll into a twice as large buffer.
+                    int[] grown = new int[queue.length * 2];
+                    int n = queue.length - head;
+                    System.arraycopy(queue, head, grown, 0, n);
+                    System.arraycopy(queue, 0, grown, n, head);
+                    head = 0;
+                    tail = queue.length;
+                    queue = grown;
+                }
+            }
+        }
+
+        return produced;
+    }
+
+
+    /**
+     * Returns the number of words in the trie.
+     * @return number of words in the trie.
+     */
+    public int size() {
+        return size;
+    }
+
+
+    /**
+     * Returns the number of nodes, including the root.
+     * @return number of node records.
+     */
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+
+    /**
+     * Returns the amount of off-heap memory the trie occupies.
+     * @return size of the node table in bytes.
+     */
+    public long offHeapBytes() {
+        return (long) nodeCount * NODE_BYTES;
+    }
+
+
+    /**
+     * Follows the text from the root.
+     * @param text lower-cased text.
+     * @return index of the node, -1 if no word starts with the text.
+     */
+    private int find(String text) {
+
+        int node = 0;
+        for (int i = 0; i < text.length() && node >= 0; i++)
+            node = child(node, text.charAt(i));
+        return node;
+    }
+
+
+    /**
+     * Finds a child by its label, children are sorted by label.
+     * @param node  index of the parent.
+     * @param label character on the edge.
+     * @return index of the child, -1 if there is none.
+     */
+    private int child(int node, char label) {
+
+        int offset = node * NODE_BYTES;
+        int low = nodes.getInt(offset + FIRST_CHILD);
+        int high = low + nodes.getChar(offset + CHILD_COUNT) - 1;
+
+        if (high - low < LINEAR_SCAN_LIMIT) {
+            for (int child = low; child <= high; child++) {
+                char c = nodes.getChar(child * NODE_BYTES + LABEL);
+                if (c == label) return child;
+                if (c > label) return -1;
+            }
+            return -1;
+        }
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char c = nodes.getChar(middle * NODE_BYTES + LABEL);
+            if (c < label)      low = middle + 1;
+            else if (c > label) high = middle - 1;
+            else                return middle;
+        }
+        return -1;
+    }
+
+
+    /**
+     * Rebuilds the text of a node from the labels on the path to the root.
+     * @param node index of the node.
+     * @return text of the node.
+     */
+    private String textOf(int node) {
+
+        char[] text = new char[nodes.getInt(node * NODE_BYTES + DEPTH) & ~WORD_FLAG];
+        for (int i = text.length - 1; i >= 0; i--) {
+            int offset = node * NODE_BYTES;
+            text[i] = nodes.getChar(offset + LABEL);
+            node = nodes.getInt(offset + PARENT);
+        }
+        return new String(text);
+    }
+
+
+    /**
+     * String value that represents the structure.
+     * @return number of words and nodes and the off-heap size.
+     */
+    @Override
+    public String toString() {
+        return "OffHeapTrie{words=" + size + ", nodes=" + nodeCount + ", offHeapBytes=" + offHeapBytes() + '}';
+    }
+
+}
@@ -0,0 +1,404 @@
+package dataStructures;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Trie of multi-word phrases that completes partially typed phrases by popularity.
+ *
+ * Phrases are split into lower-cased tokens on whitespace and every distinct token is interned to an <code> int </code> id,
+ * so the trie branches on ids rather than characters: a node is a phrase prefix, its children are keyed by the id of
+ * the next token in an {@link IntToObjectMap}. Every node counts how often its phrase was added and remembers the
+ * highest count anywhere below it.
+ *
+ * Completion treats the last token of the input as a prefix unless the input ends with whitespace,
+ * so <code> "new yo" </code> completes to <code> "new york city" </code>. The top <code> k </code> phrases are found by
+ * best-first search ordered by those subtree maximums: subtrees that can't beat the phrases already found are never
+ * opened, so the work depends on <code> k </code> and the fan-out along the way rather than on the number of phrases.
+ *
+ * Ties between equally popular phrases are broken by shorter phrases first.
+ * The structure isn't thread-safe, concurrent reads are safe as long as nothing is added.
+ *
+ * @author Anton Hrytsyk
+ */
+public final class PhraseTrie {
+
+    /**
+     * Up to this many children of a node are scanned for a partial token,
+     * above it the vocabulary range of the partial token is looked up in the children instead.
+     */
+    private static final int CHILD_SCAN_LIMIT = 64;
+
+    /**
+     * Represents a phrase prefix.
+     * @author Anton Hrytsyk
+     */
+    private static final class Node {
+
+        /**
+         * Id of the last token of the phrase, -1 for the root.
+         */
+        final int token;
+
+        /**
+         * Phrase without its last token, <code> null </code> for the root.
+         */
+        final Node parent;
+
+        /**
+         * Number of tokens in the phrase.
+         */
+        final int length;
+
+        /**
+         * How often the phrase was added, 0 if it is only a prefix of other phrases.
+         */
+        long count;
+
+        /**
+         * Highest count in the subtree, including the node itself.
+         */
+        long maxCount;
+
+        /**
+         * Phrases that continue this one, keyed by the id of their next token. Created on the first child.
+         */
+        IntToObjectMap<Node> children;
+
+        Node(int token, Node parent) {
+            this.token = token;
+            this.parent = parent;
+            this.length = (parent == null) ? 0 : parent.length + 1;
+        }
+
+        Node getChild(int token) {
+            return (children == null) ? null : children.get(token);
+        }
+
+        Node addChild(int token) {
+            if (children == null) children = new IntToObjectMap<>();
+            Node node = new Node(token, this);
+            children.put(token, node);
+            return node;
+        }
+
+        int childCount() {
+            return (children == null) ? 0 : children.size();
+        }
+    }
+
+    /**
+     * Pointer to the root node, the empty phrase.
+     */
+    private final Node root = new Node(-1, null);
+
+    /**
+     * Token ids, and the tokens by id.
+     */
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> tokens = new ArrayList<>();
+
+    /**
+     * Tokens in lexicographic order, used to resolve a partial token on high fan-out nodes.
+     */
+    private final NavigableMap<String, Integer> vocabulary = new TreeMap<>();
+
+    /**
+     * Number of distinct phrases.
+     */
+    private int size;
+
+
+    /**
+     * Adds one occurrence of the phrase.
+     * @param phrase phrase to add.
+     * @return <code> true </code> if the phrase wasn't in the trie.
+     */
+    public boolean addPhrase(String phrase) {
+        return addPhrase(phrase, 1);
+    }
+
+
+    /**
+     * Adds occurrences of the phrase, e.g. when loading aggregated query logs.
+     *
+     * @throws IllegalArgumentException if count isn't positive or the phrase has no tokens.
+     *
+     * @param phrase phrase to add.
+     * @param count  number of occurrences.
+     * @return <code> true </code> if the phrase wasn't in the trie.
+     */
+    public boolean addPhrase(String phrase, long count) {
+
+        if (count <= 0)
+            throw new IllegalArgumentException("count has to be positive: " + count);
+
+        String[] words = tokenize(phrase);
+        if (words.length == 0)
+            throw new IllegalArgumentException("phrase has no tokens: " + phrase);
+
+        Node current = root;
+        for (String word : words) {
+            int token = intern(word);
+            Node child = current.getChild(token);
+            current = (child != null) ? child : current.addChild(token);
+        }
+
+        boolean isNew = current.count == 0;
+        if (isNew) size++;
+        current.count += count;
+
+        // Counts only grow, so every ancestor's maximum is at least the new count.
+        for (Node node = current; node != null && node.maxCount < current.count; node = node.parent)
+            node.maxCount = current.count;
+
+        return isNew;
+    }
+
+
+    /**
+     * Returns how often the phrase was added.
+     * @param phrase phrase to look up.
+     * @return number of occurrences, 0 if the phrase isn't in the trie.
+     */
+    public long count(String phrase) {
+        Node node = find(tokenize(phrase), 0);
+        return (node == null || node == root) ? 0 : node.count;
+    }
+
+
+    /**
+     * Produces the most popular phrases that complete the input.
+     * @param input            partially typed phrase.
+     * @param numOfCompletions maximum number of completions.
+     * @return completions, most popular first.
+     */
+    public List<String> complete(String input, int numOfCompletions) {
+        List<String> completions = new ArrayList<>();
+        complete(input, numOfCompletions, completions::add);
+        return completions;
+    }
+
+
+    /**
+     * Produces the most popular phrases that complete the input and hands them over as they are found,
+     * most popular first.
+     *
+     * @param input            partially typed phrase, its last token is a prefix unless it ends with whitespace.
+     * @param numOfCompletions maximum number of completions.
+     * @param consumer         receives the completions.
+     * @return number of completions passed to the consumer.
+     */
+    public int complete(String input, int numOfCompletions, Consumer<String> consumer) {
+
+        if (numOfCompletions <= 0) return 0;
+
+        String[] words = tokenize(input);
+        boolean lastIsPartial = words.length > 0 && !Character.isWhitespace(input.charAt(input.length() - 1));
+        int complete = lastIsPartial ? words.length - 1 : words.length;
+
+        Node node = find(words, words.length - complete);
+        if (node == null) return 0;
+
+        // Best-first search: nodes are ordered by the best count below them, phrases by their own count.
+        PriorityQueue<Candidate> queue = new PriorityQueue<>();
+
+        if (!lastIsPartial) {
+            pushChildren(queue, node, 0);
+        }
+        else {
+            String partial = words[words.length - 1];
+            if (node.childCount() <= CHILD_SCAN_LIMIT) {
+                for (int i = 0; i < node.childCount(); i++) {
+                    Node child = node.children.valueAt(i);
+                    if (tokens.get(child.token).startsWith(partial)) queue.add(new Candidate(child, false));
+                }
+            }
+            else {
+                for (int token : vocabulary.subMap(partial, true, partial + Character.MAX_VALUE, true).values()) {
+                    Node child = node.getChild(token);
+                    if (child != null) queue.add(new Candidate(child, false));
+                }
+            }
+        }
+
+        // Counts of the best phrases met so far, once there are k of them the smallest one is a lower bound
+        // of the result and subtrees whose best count is below it are never queued.
+        PriorityQueue<Long> best = new PriorityQueue<>();
+        long bound = 0;
+
+        int produced = 0;
+        while (!queue.isEmpty() && produced < numOfCompletions) {
+
+            Candidate candidate = queue.remove();
+
+            if (candidate.isPhrase) {
+                consumer.accept(toPhrase(candidate.node));
+                produced++;
+                continue;
+            }
+
+            Node current = candidate.node;
+            if (current.maxCount < bound) continue;
+
+            if (current.count > 0) {
+                queue.add(new Candidate(current, true));
+                if (best.size() < numOfCompletions) best.add(current.count);
+                else if (current.count > best.peek()) {
+                    best.remove();
+                    best.add(current.count);
+                }
+                if (best.size() == numOfCompletions) bound = best.peek();
+            }
+
+            pushChildren(queue, current, bound);
+        }
+
+        return produced;
+    }
+
+
+    /**
+     * Returns the number of distinct phrases.
+     * @return number of phrases.
+     */
+    public int size() {
+        return size;
+    }
+
+
+    /**
+     * Returns the number of distinct tokens.
+     * @return size of the vocabulary.
+     */
+    public int tokenCount() {
+        return tokens.size();
+    }
+
+
+    /**
+     * Shrinks child maps of all nodes to their number of children, once the trie won't grow anymore.
+     */
+    public void trimToSize() {
+
+        List<Node> stack = new ArrayList<>();
+        stack.add(root);
+
+        while (!stack.isEmpty()) {
+            Node node = stack.remove(stack.size() - 1);
+            if (node.children == null) continue;
+            node.children.trimToSize();
+            for (int i = 0; i < node.children.size(); i++)
+                stack.add(node.children.valueAt(i));
+        }
+    }
+
+
+    /**
+     * Splits text into lower-cased tokens.
+     * @param text text to split.
+     * @return tokens, empty if the text is blank.
+     */
+    private static String[] tokenize(String text) {
+        String trimmed = text.trim().toLowerCase();
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("\\s+");
+    }
+
+
+    /**
+     * Returns the id of the token, assigning the next one if the token is new.
+     * @param word token to intern.
+     * @return id of the token.
+     */
+    private int intern(String word) {
+
+        Integer id = ids.get(word);
+        if (id != null) return id;
+
+        int token = tokens.size();
+        ids.put(word, token);
+        tokens.add(word);
+        vocabulary.put(word, token);
+        return token;
+    }
+
+
+    /**
+     * Follows the tokens from the root.
+     * @param words tokens of a phrase.
+     * @param skip  number of trailing tokens to ignore.
+     * @return node of the phrase, <code> null </code> if no phrase starts with the tokens.
+     */
+    private Node find(String[] words, int skip) {
+
+        Node current = root;
+        for (int i = 0; i < words.length - skip && current != null; i++) {
+            Integer token = ids.get(words[i]);
+            current = (token == null) ? null : current.getChild(token);
+        }
+        return current;
+    }
+
+
+    /**
+     * Adds children of the node that can still make it into the result to the search queue.
+     * @param queue search queue.
+     * @param node  node whose children are added.
+     * @param bound lowest count that can make it into the result.
+     */
+    private static void pushChildren(PriorityQueue<Candidate> queue, Node node, long bound) {
+        for (int i = 0; i < node.childCount(); i++) {
+            Node child = node.children.valueAt(i);
+            if (child.maxCount >= bound) queue.add(new Candidate(child, false));
+        }
+    }
+
+
+    /**
+     * Rebuilds the phrase of a node from its tokens.
+     * @param node node of the phrase.
+     * @return tokens joined with single spaces.
+     */
+    private String toPhrase(Node node) {
+
+        String[] words = new String[node.length];
+        for (Node current = node; current != root; current = current.parent)
+            words[current.length - 1] = tokens.get(current.token);
+
+        return String.join(" ", words);
+    }
+
+
+    /**
+     * Entry of the best-first search: either a subtree still to be explored or a phrase ready to be returned.
+     * A phrase is returned once it reaches the head of the queue, when no unexplored subtree can contain a better one.
+     */
+    private static final class Candidate implements Comparable<Candidate> {
+
+        final Node node;
+        final boolean isPhrase;
+        final long priority;
+
+        Candidate(Node node, boolean isPhrase) {
+            this.node = node;
+            this.isPhrase = isPhrase;
+            this.priority = isPhrase ? node.count : node.maxCount;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            if (priority != other.priority) return Long.compare(other.priority, priority);
+            // On equal counts shorter goes first. A subtree never holds phrases shorter than its root,
+            // so a ready phrase only has to wait for subtrees that are shorter than itself.
+            if (node.length != other.node.length) return Integer.compare(node.length, other.node.length);
+            return (isPhrase == other.isPhrase) ? 0 : isPhrase ? -1 : 1;
+        }
+    }
+
+}
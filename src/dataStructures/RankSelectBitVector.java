@@ -0,0 +1,316 @@
+package dataStructures;
+
+/**
+ * Immutable bit vector with rank and select, the building block of succinct structures such as {@link LoudsTrie}.
+ *
+ * <code> rank1(i) </code> counts the ones before position <code> i </code>, <code> select1(j) </code> finds the position
+ * of the <code> j </code>-th one (both zero-based), <code> rank0 </code> and <code> select0 </code> do the same for zeros.
+ *
+ * Bits are grouped into 512-bit superblocks, eight <code> long </code> words. An <code> int </code> per superblock holds
+ * the number of ones before it, so rank is one table lookup plus at most eight population counts.
+ * Select additionally samples the position of every 512th one and every 512th zero: the sample narrows the search down
+ * to a few superblocks, a binary search over their counts picks one and its words are scanned.
+ * Together the tables take about 13% on top of the bits.
+ *
+ * Positions are <code> int </code>, so a vector holds fewer than 2<sup>31</sup> bits.
+ * The vector is immutable and can be read by any number of threads.
+ *
+ * @author Anton Hrytsyk
+ */
+public final class RankSelectBitVector {
+
+    /**
+     * Words per superblock, 8 * 64 = 512 bits.
+     */
+    private static final int SUPERBLOCK_WORDS = 8;
+    private static final int SUPERBLOCK_SHIFT = 9;
+
+    /**
+     * Every 512th one and zero is sampled for select.
+     */
+    private static final int SAMPLE_SHIFT = 9;
+
+    /**
+     * Bits, the lowest bit of <code> bits[0] </code> is position 0.
+     */
+    private final long[] bits;
+
+    /**
+     * Number of bits.
+     */
+    private final int length;
+
+    /**
+     * Number of ones.
+     */
+    private final int ones;
+
+    /**
+     * Ones before each superblock, with an extra entry for the end.
+     */
+    private final int[] superblockRanks;
+
+    /**
+     * Positions of every 512th one and every 512th zero.
+     */
+    private final int[] oneSamples;
+    private final int[] zeroSamples;
+
+
+    /**
+     * Creates a bit vector over the given bits, the array is not copied and must not be modified afterwards.
+     *
+     * @throws IllegalArgumentException if the length is negative or doesn't fit into the array.
+     *
+     * @param bits   bits, position <code> i </code> is bit <code> i % 64 </code> of <code> bits[i / 64] </code>;
+     *               bits past the length must be zero.
+     * @param length number of bits.
+     */
+    public RankSelectBitVector(long[] bits, int length) {
+
+        if (length < 0 || (long) bits.length * Long.SIZE < length)
+            throw new IllegalArgumentException("length " + length + " doesn't fit into " + bits.length + " words");
+
+        this.bits = bits;
+        this.length = length;
+
+        int words = (length + Long.SIZE - 1) >>> 6;
+        int superblocks = (words + SUPERBLOCK_WORDS - 1) / SUPERBLOCK_WORDS;
+        superblockRanks = new int[superblocks + 1];
+
+        int count = 0;
+        for (int word = 0; word < words; word++) {
+            if (word % SUPERBLOCK_WORDS == 0) superblockRanks[word / SUPERBLOCK_WORDS] = count;
+            count += Long.bitCount(bits[word]);
+        }
+        superblockRanks[superblocks] = count;
+        ones = count;
+
+        oneSamples = new int[(ones + (1 << SAMPLE_SHIFT) - 1) >>> SAMPLE_SHIFT];
+        zeroSamples = new int[(length - ones + (1 << SAMPLE_SHIFT) - 1) >>> SAMPLE_SHIFT];
+
+        // Walks all bits once and records the position of every 512th one and zero.
+        int nextOne = 0, nextZero = 0, zeros = 0;
+        count = 0;
+        for (int word = 0; word < words; word++) {
+            int valid = Math.min(Long.SIZE, length - (word << 6));
+            long w = bits[word];
+            int wordOnes = Long.bitCount(w), wordZeros = valid - wordOnes;
+
+            while (nextOne < oneSamples.length && (nextOne << SAMPLE_SHIFT) < count + wordOnes) {
+                oneSamples[nextOne] = (word << 6) + selectInWord(w, (nextOne << SAMPLE_SHIFT) - count);
+                nextOne++;
+            }
+            while (nextZero < zeroSamples.length && (nextZero << SAMPLE_SHIFT) < zeros + wordZeros) {
+                zeroSamples[nextZero] = (word << 6) + selectInWord(~w, (nextZero << SAMPLE_SHIFT) - zeros);
+                nextZero++;
+            }
+            count += wordOnes;
+            zeros += wordZeros;
+        }
+    }
+
+
+    /**
+     * Returns the bit at a position.
+     *
+     * @throws IndexOutOfBoundsException if the position is outside of the vector.
+     *
+     * @param i position.
+     * @return <code> true </code> if the bit is set.
+     */
+    public boolean get(int i) {
+        if (i < 0 || i >= length) throw new IndexOutOfBoundsException("Illegal index: " + i + "; size: " + length);
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+
+
+    /**
+     * Counts the ones before a position.
+     *
+     * @throws IndexOutOfBoundsException if the position is outside of <code> [0, length] </code>.
+     *
+     * @param i position, <code> length </code> counts all ones.
+     * @return number of ones in <code> [0, i) </code>.
+     */
+    public int rank1(int i) {
+
+        if (i < 0 || i > length) throw new IndexOutOfBoundsException("Illegal index: " + i + "; size: " + length);
+
+        int word = i >>> 6;
+        int rank = superblockRanks[i >>> SUPERBLOCK_SHIFT];
+        for (int w = word & -SUPERBLOCK_WORDS; w < word; w++)
+            rank += Long.bitCount(bits[w]);
+
+        if ((i & 63) != 0) rank += Long.bitCount(bits[word] & ((1L << i) - 1));
+        return rank;
+    }
+
+
+    /**
+     * Counts the zeros before a position.
+     *
+     * @throws IndexOutOfBoundsException if the position is outside of <code> [0, length] </code>.
+     *
+     * @param i position, <code> length </code> counts all zeros.
+     * @return number of zeros in <code> [0, i) </code>.
+     */
+    public int rank0(int i) {
+        return i - rank1(i);
+    }
+
+
+    /**
+     * Finds the position of a one.
+     *
+     * @throws IndexOutOfBoundsException if there are no more than <code> j </code> ones.
+     *
+     * @param j zero-based number of the one.
+     * @return position of the <code> j </code>-th one.
+     */
+    public int select1(int j) {
+
+        if (j < 0 || j >= ones) throw new IndexOutOfBoundsException("Illegal index: " + j + "; size: " + ones);
+
+        // The samples around j bound the search to a few superblocks, the answer is the last one with at most j ones before it.
+        int sample = j >>> SAMPLE_SHIFT;
+        int low = oneSamples[sample] >>> SUPERBLOCK_SHIFT;
+        int high = (sample + 1 < oneSamples.length) ? oneSamples[sample + 1] >>> SUPERBLOCK_SHIFT : superblockRanks.length - 2;
+
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (superblockRanks[middle] <= j) low = middle;
+            else                              high = middle - 1;
+        }
+
+        int rest = j - superblockRanks[low];
+        for (int word = low * SUPERBLOCK_WORDS; ; word++) {
+            int count = Long.bitCount(bits[word]);
+            if (rest < count) return (word << 6) + selectInWord(bits[word], rest);
+            rest -= count;
+        }
+    }
+
+
+    /**
+     * Finds the position of a zero.
+     *
+     * @throws IndexOutOfBoundsException if there are no more than <code> j </code> zeros.
+     *
+     * @param j zero-based number of the zero.
+     * @return position of the <code> j </code>-th zero.
+     */
+    public int select0(int j) {
+
+        if (j < 0 || j >= length - ones) throw new IndexOutOfBoundsException("Illegal index: " + j + "; size: " + (length - ones));
+
+        int sample = j >>> SAMPLE_SHIFT;
+        int low = zeroSamples[sample] >>> SUPERBLOCK_SHIFT;
+        int high = (sample + 1 < zeroSamples.length) ? zeroSamples[sample + 1] >>> SUPERBLOCK_SHIFT : superblockRanks.length - 2;
+
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (zerosBefore(middle) <= j) low = middle;
+            else                          high = middle - 1;
+        }
+
+        // Zeros past the length sit after the last real zero, so the scan stops before reaching them.
+        int rest = j - zerosBefore(low);
+        for (int word = low * SUPERBLOCK_WORDS; ; word++) {
+            int count = Long.bitCount(~bits[word]);
+            if (rest < count) return (word << 6) + selectInWord(~bits[word], rest);
+            rest -= count;
+        }
+    }
+
+
+    /**
+     * Finds the first zero at or after a position, cheaper than <code> select0 </code> when the zero is near.
+     *
+     * @throws IndexOutOfBoundsException if the position is outside of the vector.
+     *
+     * @param i position to start at.
+     * @return position of the zero, <code> length </code> if there is none.
+     */
+    public int nextClearBit(int i) {
+
+        if (i < 0 || i >= length) throw new IndexOutOfBoundsException("Illegal index: " + i + "; size: " + length);
+
+        int word = i >>> 6;
+        long zeros = ~bits[word] & (-1L << i);
+        while (zeros == 0 && ++word < bits.length)
+            zeros = ~bits[word];
+
+        return (zeros == 0) ? length : Math.min(length, (word << 6) + Long.numberOfTrailingZeros(zeros));
+    }
+
+
+    /**
+     * Returns the number of bits.
+     * @return length of the vector.
+     */
+    public int length() {
+        return length;
+    }
+
+
+    /**
+     * Returns the number of ones.
+     * @return number of set bits.
+     */
+    public int ones() {
+        return ones;
+    }
+
+
+    /**
+     * Returns the memory the bits and the rank and select tables take.
+     * @return size in bytes, object headers aside.
+     */
+    public long sizeInBytes() {
+        return (long) bits.length * Long.BYTES +
+                (long) (superblockRanks.length + oneSamples.length + zeroSamples.length) * Integer.BYTES;
+    }
+
+
+    /**
+     * Counts the zeros before a superblock.
+     * @param superblock index of the superblock.
+     * @return number of zeros before it.
+     */
+    private int zerosBefore(int superblock) {
+        return (superblock << SUPERBLOCK_SHIFT) - superblockRanks[superblock];
+    }
+
+
+    /**
+     * Finds the position of a one inside a word: skips whole bytes by their population count,
+     * then clears the lowest ones of the remaining byte.
+     * @param word bits.
+     * @param j    zero-based number of the one, less than the number of ones in the word.
+     * @return position of the one inside the word.
+     */
+    private static int selectInWord(long word, int j) {
+
+        int shift = 0;
+        for (int count; j >= (count = Long.bitCount((word >>> shift) & 0xFF)); shift += 8)
+            j -= count;
+
+        long rest = word >>> shift;
+        for (; j > 0; j--)
+            rest &= rest - 1;
+
+        return shift + Long.numberOfTrailingZeros(rest);
+    }
+
+
+    /**
+     * String value that represents the vector.
+     * @return length, number of ones and size.
+     */
+    @Override
+    public String toString() {
+        return "RankSelectBitVector{length=" + length + ", ones=" + ones + ", bytes=" + sizeInBytes() + '}';
+    }
+
+}
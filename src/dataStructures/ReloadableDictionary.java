@@ -0,0 +1,541 @@
+package dataStructures;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Dictionary that rebuilds its {@link AutoCompleteDictionaryTrie} whenever the source file changes.
+ *
+ * The trie is kept in a volatile field, so lookups never wait: they run on whichever trie is current,
+ * while a replacement is built on a single low-priority background thread and swapped in with one write.
+ * The old trie becomes garbage right after the swap.
+ *
+ * Memory overlap is bounded to one old and one new trie:
+ * <ul>
+ *     <li> at most one build runs at a time, changes that arrive meanwhile are coalesced into one follow-up build; </li>
+ *     <li> words are streamed from the file into the trie, the file is never held in memory as a list; </li>
+ *     <li> the new trie is trimmed before the swap, so it doesn't carry unused child slots. </li>
+ * </ul>
+ *
+ * Changes are detected with a {@link WatchService} on the file's directory and debounced, so an editor that
+ * saves in several writes triggers a single build. A build that fails or yields no words keeps the current trie.
+ * A listener set with {@link #setListener(TrieListener)} is attached to every replacement before it is swapped in,
+ * the replaced trie keeps no reference to it. Likewise a filter enabled with {@link #enableFilter(double, int)}
+ * is built for every replacement as part of the build.
+ *
+ * Usage:
+ * <pre>
+ *     try (ReloadableDictionary dictionary = new ReloadableDictionary(Paths.get("src/data/dictionary.txt"))) {
+ *         dictionary.startWatching();
+ *         dictionary.produceCompletions("hel", 10);
+ *     }
+ * </pre>
+ *
+ * @author Anton Hrytsyk
+ */
+public final class ReloadableDictionary implements ReloadableDictionaryMBean, Closeable {
+
+    /**
+     * Quiet period after the last change event before a build starts, in milliseconds.
+     */
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 200;
+
+    /**
+     * HotSpot extension of the thread bean, used to read allocation of the build thread.
+     */
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Source file of the dictionary.
+     */
+    private final Path path;
+
+    /**
+     * Quiet period before a build starts.
+     */
+    private final long debounceMillis;
+
+    /**
+     * Trie that currently answers lookups.
+     */
+    private volatile AutoCompleteDictionaryTrie trie;
+
+    /**
+     * Single thread that builds the replacements.
+     */
+    private final ScheduledExecutorService builder;
+
+    /**
+     * Build that is scheduled or running, guarded by <code> this </code>.
+     */
+    private ScheduledFuture<?> scheduled;
+
+    /**
+     * Completes when the next build that hasn't started yet finishes, <code> null </code> if none is requested.
+     * Shared by all requests coalesced into that build, guarded by <code> this </code>.
+     */
+    private CompletableFuture<Void> pending;
+
+    /**
+     * Listener attached to every trie, guarded by <code> this </code>.
+     */
+    private TrieListener listener;
+
+    /**
+     * Configuration of the Bloom filter built for every trie, a rate of 0 means no filter.
+     * Guarded by <code> this </code>.
+     */
+    private double filterFalsePositiveRate;
+    private int filterMaxPrefixLength;
+
+    /**
+     * Watches the directory of the file, <code> null </code> until watching is started.
+     */
+    private WatchService watchService;
+
+    /**
+     * Metrics of the reloads, written only by the building thread.
+     * The initial build counts as a reload.
+     */
+    private volatile long reloads;
+    private volatile long failedReloads;
+    private volatile String lastFailure;
+    private volatile long lastReloadTimestamp;
+    private volatile long lastBuildNanos;
+    private volatile long lastBuildAllocatedBytes;
+    private volatile long estimatedTrieBytes;
+    private volatile long peakEstimatedBytes;
+
+    /**
+     * Name under which the MBean was registered, null if it wasn't.
+     */
+    private ObjectName objectName;
+
+
+    /**
+     * Builds the initial trie with the default debounce period.
+     * @param path source file, one word per line, UTF-8.
+     * @throws IOException if the file can't be read.
+     */
+    public ReloadableDictionary(Path path) throws IOException {
+        this(path, DEFAULT_DEBOUNCE_MILLIS);
+    }
+
+    /**
+     * Builds the initial trie synchronously.
+     * @param path           source file, one word per line, UTF-8.
+     * @param debounceMillis quiet period after the last change before a build starts.
+     * @throws IOException if the file can't be read.
+     */
+    public ReloadableDictionary(Path path, long debounceMillis) throws IOException {
+
+        if (path == null)
+            throw new IllegalArgumentException("path can't be null");
+        if (debounceMillis < 0)
+            throw new IllegalArgumentException("debounce can't be negative");
+
+        this.path = path.toAbsolutePath();
+        this.debounceMillis = debounceMillis;
+
+        rebuild();
+        if (lastFailure != null)
+            throw new IOException(lastFailure);
+
+        this.builder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dictionary-builder");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+
+    /**
+     * Starts watching the file for changes in a background thread.
+     * @throws IOException if the directory can't be watched.
+     */
+    public synchronized void startWatching() throws IOException {
+
+        if (watchService != null) return;
+
+        Path directory = path.getParent();
+        WatchService watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.watchService = watchService;
+
+        Thread watcher = new Thread(() -> watch(watchService), "dictionary-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+
+    /**
+     * Returns the trie that currently answers lookups.
+     * Callers that make several lookups which have to be consistent should hold on to the returned trie.
+     * @return current trie.
+     */
+    public AutoCompleteDictionaryTrie current() {
+        return trie;
+    }
+
+
+    /**
+     * Checks the word against the current trie.
+     * @param text text to check.
+     * @return <code> true </code> if the word is in the dictionary.
+     */
+    public boolean isWord(String text) {
+        return trie.isWord(text);
+    }
+
+
+    /**
+     * Produces completions from the current trie.
+     * @param text             prefix to complete.
+     * @param numOfCompletions number of completions.
+     * @return list with at most the specified number of completions.
+     */
+    public List<String> produceCompletions(String text, int numOfCompletions) {
+        return trie.produceCompletions(text, numOfCompletions);
+    }
+
+
+    /**
+     * Produces completions from the current trie without collecting them.
+     * @param text             prefix to complete.
+     * @param numOfCompletions maximum number of completions.
+     * @param consumer         receives the completions.
+     * @return number of completions passed to the consumer.
+     */
+    public int produceCompletions(String text, int numOfCompletions, Consumer<String> consumer) {
+        return trie.produceCompletions(text, numOfCompletions, consumer);
+    }
+
+
+    /**
+     * Attaches a listener to the current trie and to every trie that replaces it.
+     * @param listener receives operation events, <code> null </code> disables instrumentation.
+     */
+    public synchronized void setListener(TrieListener listener) {
+        this.listener = listener;
+        trie.setListener(listener);
+    }
+
+
+    /**
+     * Returns the listener attached to the tries.
+     * @return attached listener, <code> null </code> if instrumentation is disabled.
+     */
+    public synchronized TrieListener getListener() {
+        return listener;
+    }
+
+
+    /**
+     * Puts a Bloom filter in front of the current trie and of every trie that replaces it,
+     * see {@link AutoCompleteDictionaryTrie#enableFilter(double, int)}.
+     * @param falsePositiveRate probability that a missing word or prefix isn't rejected, e.g. 0.01.
+     * @param maxPrefixLength   longest prefix the filter answers for.
+     * @return filter of the current trie.
+     */
+    public synchronized DictionaryFilter enableFilter(double falsePositiveRate, int maxPrefixLength) {
+        DictionaryFilter filter = trie.enableFilter(falsePositiveRate, maxPrefixLength);
+        filterFalsePositiveRate = falsePositiveRate;
+        filterMaxPrefixLength = maxPrefixLength;
+        return filter;
+    }
+
+
+    /**
+     * Removes the Bloom filter from the current trie, replacements are built without one.
+     */
+    public synchronized void disableFilter() {
+        filterFalsePositiveRate = 0;
+        trie.disableFilter();
+    }
+
+
+    /**
+     * Requests a rebuild right away, regardless of file changes.
+     * Returns immediately, use {@link #reloadAsync()} to wait for the build. Does nothing once the dictionary is closed.
+     */
+    @Override
+    public void reload() {
+        reloadAsync();
+    }
+
+
+    /**
+     * Requests a rebuild right away. Requests that arrive before the build starts are served by the same build
+     * and get the same future.
+     * @return future that completes once the build finished, whether it was swapped in or not;
+     *         it is cancelled if the dictionary is closed first.
+     */
+    public Future<?> reloadAsync() {
+        return schedule(0);
+    }
+
+
+    /**
+     * Stops watching and building. The current trie stays usable.
+     */
+    @Override
+    public synchronized void close() {
+
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ignored) {
+                // The watcher thread exits either way.
+            }
+        }
+        builder.shutdownNow();
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+
+        try {
+            unregisterMBean();
+        } catch (JMException ignored) {
+            // Nothing useful can be done while closing.
+        }
+    }
+
+
+    /**
+     * Registers the reload metrics with the platform MBean server
+     * as <code> dataStructures:type=ReloadableDictionary,name=&lt;name&gt; </code>.
+     * @param name name that distinguishes this dictionary from others.
+     * @throws JMException if registration fails, e.g. the name is already taken.
+     */
+    public synchronized void registerMBean(String name) throws JMException {
+        ObjectName objectName = new ObjectName("dataStructures:type=ReloadableDictionary,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        this.objectName = objectName;
+    }
+
+
+    /**
+     * Removes the MBean from the platform MBean server, if it was registered.
+     * @throws JMException if unregistration fails.
+     */
+    public synchronized void unregisterMBean() throws JMException {
+        if (objectName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            objectName = null;
+        }
+    }
+
+
+    @Override
+    public String getPath() {
+        return path.toString();
+    }
+
+    @Override
+    public int getWordCount() {
+        return trie.size();
+    }
+
+    @Override
+    public long getReloadCount() {
+        return reloads;
+    }
+
+    @Override
+    public long getFailedReloadCount() {
+        return failedReloads;
+    }
+
+    @Override
+    public String getLastFailure() {
+        return lastFailure;
+    }
+
+    @Override
+    public long getLastReloadTimestamp() {
+        return lastReloadTimestamp;
+    }
+
+    @Override
+    public double getLastBuildMillis() {
+        return lastBuildNanos / 1e6;
+    }
+
+    @Override
+    public long getLastBuildAllocatedBytes() {
+        return lastBuildAllocatedBytes;
+    }
+
+    @Override
+    public long getEstimatedTrieBytes() {
+        return estimatedTrieBytes;
+    }
+
+    @Override
+    public long getPeakEstimatedBytes() {
+        return peakEstimatedBytes;
+    }
+
+
+    /**
+     * Schedules a build, replacing one that is scheduled but hasn't started yet.
+     * A build that is already running is left alone and the new one runs after it.
+     * @param delayMillis delay before the build starts.
+     * @return future that completes when the build finishes, shared with the requests it replaced;
+     *         a cancelled future if the dictionary is closed.
+     */
+    private synchronized Future<?> schedule(long delayMillis) {
+
+        if (builder.isShutdown()) {
+            CompletableFuture<Void> cancelled = new CompletableFuture<>();
+            cancelled.cancel(false);
+            return cancelled;
+        }
+
+        // Cancelling only drops a build that hasn't started, a running one has already taken its future.
+        if (scheduled != null && !scheduled.isDone())
+            scheduled.cancel(false);
+
+        CompletableFuture<Void> future = (pending != null) ? pending : new CompletableFuture<>();
+        scheduled = builder.schedule(this::runBuild, delayMillis, TimeUnit.MILLISECONDS);
+        pending = future;
+        return future;
+    }
+
+
+    /**
+     * Runs a scheduled build and completes the future of the requests it serves.
+     */
+    private void runBuild() {
+
+        CompletableFuture<Void> done;
+        synchronized (this) {
+            done = pending;
+            pending = null;
+        }
+
+        try {
+            rebuild();
+        } catch (RuntimeException | Error e) {
+            if (done != null) done.completeExceptionally(e);
+            throw e;
+        }
+        if (done != null) done.complete(null);
+    }
+
+
+    /**
+     * Watches the directory until the watch service is closed.
+     * @param watchService watch service registered for the file's directory.
+     */
+    private void watch(WatchService watchService) {
+
+        Path fileName = path.getFileName();
+
+        try {
+            while (true) {
+
+                WatchKey key = watchService.take();
+                boolean changed = false;
+
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context()))
+                        changed = true;
+                }
+
+                if (changed) schedule(debounceMillis);
+                if (!key.reset()) return;
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Closed, stop watching.
+        }
+    }
+
+
+    /**
+     * Builds a new trie from the file and swaps it in.
+     * Runs on the builder thread, or on the constructing thread for the initial build.
+     */
+    private void rebuild() {
+
+        long thread = Thread.currentThread().getId();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+
+        AutoCompleteDictionaryTrie replacement;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+
+            Iterator<String> words = reader.lines().filter(word -> !word.isEmpty()).iterator();
+            replacement = new AutoCompleteDictionaryTrie(words);
+            replacement.trimToSize();
+
+        } catch (IOException | UncheckedIOException e) {
+            failedReloads++;
+            lastFailure = "can't read " + path + ": " + e.getMessage();
+            return;
+        }
+
+        if (replacement.size() == 0) {
+            // Most likely the file was caught in the middle of being rewritten.
+            failedReloads++;
+            lastFailure = path + " has no words";
+            return;
+        }
+
+        double falsePositiveRate;
+        int maxPrefixLength;
+        synchronized (this) {
+            falsePositiveRate = filterFalsePositiveRate;
+            maxPrefixLength = filterMaxPrefixLength;
+        }
+        if (falsePositiveRate > 0) replacement.enableFilter(falsePositiveRate, maxPrefixLength);
+
+        lastBuildNanos = System.nanoTime() - start;
+        lastBuildAllocatedBytes = THREADS.getThreadAllocatedBytes(thread) - allocatedBefore;
+
+        // Right before the swap both tries are reachable, that is the peak of the overlap.
+        long replacementBytes = replacement.statistics().getEstimatedBytes();
+        peakEstimatedBytes = estimatedTrieBytes + replacementBytes;
+        estimatedTrieBytes = replacementBytes;
+
+        // Under the lock, so a listener or filter set meanwhile can't end up on the old trie only.
+        synchronized (this) {
+            if (filterFalsePositiveRate != falsePositiveRate || filterMaxPrefixLength != maxPrefixLength) {
+                if (filterFalsePositiveRate > 0) replacement.enableFilter(filterFalsePositiveRate, filterMaxPrefixLength);
+                else replacement.disableFilter();
+            }
+            replacement.setListener(listener);
+            trie = replacement;
+        }
+
+        lastReloadTimestamp = System.currentTimeMillis();
+        lastFailure = null;
+        reloads++;
+    }
+
+}
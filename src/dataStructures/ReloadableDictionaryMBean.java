@@ -0,0 +1,32 @@
+package dataStructures;
+
+/**
+ * JMX management interface of {@link ReloadableDictionary}.
+ *
+ * @author Anton Hrytsyk
+ */
+public interface ReloadableDictionaryMBean {
+
+    String getPath();
+
+    int getWordCount();
+
+    long getReloadCount();
+
+    long getFailedReloadCount();
+
+    String getLastFailure();
+
+    long getLastReloadTimestamp();
+
+    double getLastBuildMillis();
+
+    long getLastBuildAllocatedBytes();
+
+    long getEstimatedTrieBytes();
+
+    long getPeakEstimatedBytes();
+
+    void reload();
+
+}
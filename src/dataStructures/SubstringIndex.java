@@ -0,0 +1,387 @@
+package dataStructures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Substring (infix and suffix) search over a dictionary, built to run alongside {@link AutoCompleteDictionaryTrie}.
+ *
+ * All words are concatenated into one <code> char[] </code>, each terminated by <code> '\0' </code>,
+ * and every position inside a word starts a suffix. The suffixes are sorted up to their word's terminator into
+ * a suffix array, so all occurrences of a query form one contiguous range that two binary searches find in
+ * <code> O(|q| log n) </code>. Results are read off that range without touching the rest of the dictionary.
+ *
+ * Words are lower-cased like in the trie. Matches come in suffix order: words that end with the query first,
+ * then the others ordered by what follows the match. A word that contains the query several times is reported once.
+ * The index is immutable, so it can be shared by any number of threads.
+ *
+ * @author Anton Hrytsyk
+ */
+public final class SubstringIndex {
+
+    /**
+     * Terminates every word in the text, sorts before any real character.
+     */
+    private static final char TERMINATOR = '\0';
+
+    /**
+     * Ranges up to this size are sorted with insertion sort.
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    /**
+     * Up to this many results duplicates are detected with a linear scan instead of a hash set.
+     */
+    private static final int LINEAR_DEDUP_LIMIT = 64;
+
+    /**
+     * Concatenated words, each followed by the terminator.
+     */
+    private final char[] text;
+
+    /**
+     * Offset of every word in the text, ascending, so the word of a position is found by binary search.
+     */
+    private final int[] wordStarts;
+
+    /**
+     * Offsets of all suffixes that start inside a word, sorted by the suffix up to the terminator.
+     */
+    private final int[] suffixes;
+
+
+    /**
+     * Builds the index over all words of the trie.
+     * @param trie trie whose words will be searchable.
+     */
+    public SubstringIndex(AutoCompleteDictionaryTrie trie) {
+        this(allWords(trie).iterator());
+    }
+
+    /**
+     * Builds the index over the given words.
+     * Duplicates and empty words are dropped, words that contain <code> '\0' </code> can't be indexed and are skipped.
+     * @param words words that will be searchable.
+     */
+    public SubstringIndex(Iterator<String> words) {
+
+        // Sorting the words first drops duplicates and makes word ids alphabetical.
+        List<String> unique = new ArrayList<>();
+        while (words.hasNext()) {
+            String word = words.next().toLowerCase();
+            if (!word.isEmpty() && word.indexOf(TERMINATOR) < 0) unique.add(word);
+        }
+        String[] sorted = unique.toArray(new String[0]);
+        Arrays.sort(sorted);
+
+        int count = 0, length = 0, suffixCount = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i > 0 && sorted[i].equals(sorted[i - 1])) continue;
+            sorted[count++] = sorted[i];
+            length += sorted[i].length() + 1;
+            suffixCount += sorted[i].length();
+        }
+
+        text = new char[length];
+        wordStarts = new int[count];
+        suffixes = new int[suffixCount];
+
+        for (int i = 0, position = 0, suffix = 0; i < count; i++) {
+            String word = sorted[i];
+            wordStarts[i] = position;
+            word.getChars(0, word.length(), text, position);
+            for (int j = 0; j < word.length(); j++)
+                suffixes[suffix++] = position + j;
+            position += word.length();
+            text[position++] = TERMINATOR;
+        }
+
+        sort(0, suffixes.length - 1, 0);
+    }
+
+
+    /**
+     * Finds words that contain the query.
+     * @param query            substring to search for.
+     * @param numOfCompletions maximum number of words to return.
+     * @return list with at most the specified number of words.
+     */
+    public List<String> containsSubstring(String query, int numOfCompletions) {
+        List<String> matches = new ArrayList<>();
+        containsSubstring(query, numOfCompletions, matches::add);
+        return matches;
+    }
+
+
+    /**
+     * Finds words that contain the query and hands them over as they are found, like
+     * {@link AutoCompleteDictionaryTrie#produceCompletions(String, int, Consumer)}.
+     * @param query            substring to search for.
+     * @param numOfCompletions maximum number of words passed to the consumer.
+     * @param consumer         receives the words.
+     * @return number of words passed to the consumer.
+     */
+    public int containsSubstring(String query, int numOfCompletions, Consumer<String> consumer) {
+
+        // No indexed word contains the terminator, and matching it would run past the end of the text.
+        if (numOfCompletions <= 0 || query.indexOf(TERMINATOR) >= 0) return 0;
+
+        query = query.toLowerCase();
+        int low = lowerBound(query);
+        int high = upperBound(query, low);
+
+        int[] recent = new int[Math.min(numOfCompletions, LINEAR_DEDUP_LIMIT)];
+        Set<Integer> seen = (numOfCompletions > LINEAR_DEDUP_LIMIT) ? new HashSet<>() : null;
+        int produced = 0;
+
+        for (int i = low; i < high && produced < numOfCompletions; i++) {
+
+            int word = wordOf(suffixes[i]);
+
+            if (seen != null) {
+                if (!seen.add(word)) continue;
+            }
+            else {
+                if (contains(recent, produced, word)) continue;
+                recent[produced] = word;
+            }
+
+            consumer.accept(wordAt(word));
+            produced++;
+        }
+
+        return produced;
+    }
+
+
+    /**
+     * Counts occurrences of the query, a word that contains it several times is counted every time.
+     * @param query substring to search for.
+     * @return number of occurrences.
+     */
+    public int countOccurrences(String query) {
+        if (query.indexOf(TERMINATOR) >= 0) return 0;
+        query = query.toLowerCase();
+        int low = lowerBound(query);
+        return upperBound(query, low) - low;
+    }
+
+
+    /**
+     * Returns the number of indexed words.
+     * @return number of words.
+     */
+    public int size() {
+        return wordStarts.length;
+    }
+
+
+    /**
+     * Collects words of the trie.
+     * @param trie trie to read.
+     * @return all words of the trie.
+     */
+    private static List<String> allWords(AutoCompleteDictionaryTrie trie) {
+        List<String> words = new ArrayList<>(trie.size());
+        trie.produceCompletions("", Math.max(trie.size(), 1), words::add);
+        return words;
+    }
+
+
+    /**
+     * Finds the first suffix that is not smaller than the query.
+     * @param query lower-cased query.
+     * @return index into the suffix array.
+     */
+    private int lowerBound(String query) {
+        int low = 0, high = suffixes.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(suffixes[middle], query) < 0) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+
+    /**
+     * Finds the first suffix after the lower bound that doesn't start with the query.
+     * @param query lower-cased query.
+     * @param low   lower bound of the query.
+     * @return index into the suffix array, the end of the matching range.
+     */
+    private int upperBound(String query, int low) {
+        int high = suffixes.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(suffixes[middle], query) <= 0) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+
+    /**
+     * Compares the suffix with the query, a suffix that starts with the query counts as equal.
+     * The query must not contain the terminator, the terminator then ends every comparison inside the text.
+     * @param suffix offset of the suffix.
+     * @param query  lower-cased query without the terminator.
+     * @return negative, zero or positive like <code> compareTo </code>.
+     */
+    private int compare(int suffix, String query) {
+        for (int i = 0; i < query.length(); i++) {
+            char c = text[suffix + i];
+            char q = query.charAt(i);
+            if (c != q) return c - q;
+        }
+        return 0;
+    }
+
+
+    /**
+     * Finds the word a text position belongs to.
+     * @param position offset in the text.
+     * @return id of the word.
+     */
+    private int wordOf(int position) {
+        int index = Arrays.binarySearch(wordStarts, position);
+        return (index >= 0) ? index : -index - 2;
+    }
+
+
+    /**
+     * Reads a word out of the text.
+     * @param word id of the word.
+     * @return the word.
+     */
+    private String wordAt(int word) {
+        int start = wordStarts[word];
+        int end = (word + 1 < wordStarts.length) ? wordStarts[word + 1] - 1 : text.length - 1;
+        return new String(text, start, end - start);
+    }
+
+
+    /**
+     * Checks whether the first elements of the array contain the value.
+     * @param arr    array to scan.
+     * @param length number of elements in use.
+     * @param value  value to look for.
+     * @return <code> true </code> if the value is found.
+     */
+    private static boolean contains(int[] arr, int length, int value) {
+        for (int i = 0; i < length; i++)
+            if (arr[i] == value) return true;
+        return false;
+    }
+
+
+    /**
+     * Sorts a range of the suffix array with multikey quicksort, like {@code Algorithms.stringSort} does for strings.
+     * All suffixes of the range share their first <code> depth </code> characters.
+     * @param low   first index of the range.
+     * @param high  last index of the range.
+     * @param depth number of characters already known to be equal.
+     */
+    private void sort(int low, int high, int depth) {
+
+        while (high - low > INSERTION_SORT_THRESHOLD) {
+
+            int pivot = charAt(suffixes[medianOfThree(low, (low + high) >>> 1, high, depth)], depth);
+
+            // Three-way partition: [low, lt) < pivot, [lt, gt] == pivot, (gt, high] > pivot.
+            int lt = low, gt = high, i = low;
+            while (i <= gt) {
+                int c = charAt(suffixes[i], depth);
+                if (c < pivot)      swap(lt++, i++);
+                else if (c > pivot) swap(i, gt--);
+                else                i++;
+            }
+
+            sort(low, lt - 1, depth);
+            if (pivot != TERMINATOR) sort(lt, gt, depth + 1);
+
+            low = gt + 1;
+        }
+
+        insertionSort(low, high, depth);
+    }
+
+
+    /**
+     * Sorts a small range by comparing the suffixes from the given depth on.
+     * @param low   first index of the range.
+     * @param high  last index of the range.
+     * @param depth number of characters already known to be equal.
+     */
+    private void insertionSort(int low, int high, int depth) {
+        for (int i = low + 1; i <= high; i++) {
+            int suffix = suffixes[i];
+            int j = i - 1;
+            while (j >= low && less(suffix, suffixes[j], depth)) {
+                suffixes[j + 1] = suffixes[j];
+                j--;
+            }
+            suffixes[j + 1] = suffix;
+        }
+    }
+
+
+    /**
+     * Compares two suffixes up to their terminators.
+     * @param a     offset of the first suffix.
+     * @param b     offset of the second suffix.
+     * @param depth number of characters already known to be equal.
+     * @return <code> true </code> if the first suffix is smaller.
+     */
+    private boolean less(int a, int b, int depth) {
+        for (int i = depth; ; i++) {
+            char x = text[a + i], y = text[b + i];
+            if (x != y) return x < y;
+            if (x == TERMINATOR) return false;
+        }
+    }
+
+
+    /**
+     * Picks the index whose character at the depth is the median of the three.
+     * @param a     first index.
+     * @param b     second index.
+     * @param c     third index.
+     * @param depth position of the compared character.
+     * @return index of the median.
+     */
+    private int medianOfThree(int a, int b, int c, int depth) {
+        int x = charAt(suffixes[a], depth), y = charAt(suffixes[b], depth), z = charAt(suffixes[c], depth);
+        if (x < y) return (y < z) ? b : (x < z) ? c : a;
+        else       return (x < z) ? a : (y < z) ? c : b;
+    }
+
+
+    /**
+     * Returns the character of the suffix at the depth, the terminator is never passed.
+     * @param suffix offset of the suffix.
+     * @param depth  position in the suffix.
+     * @return character at the position.
+     */
+    private char charAt(int suffix, int depth) {
+        return text[suffix + depth];
+    }
+
+
+    /**
+     * Swaps two entries of the suffix array.
+     * @param i first index.
+     * @param j second index.
+     */
+    private void swap(int i, int j) {
+        int t = suffixes[i];
+        suffixes[i] = suffixes[j];
+        suffixes[j] = t;
+    }
+
+}
@@ -0,0 +1,207 @@
+package dataStructures;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Dictionary of a single tenant: a shared base trie plus a small overlay trie with the tenant's own words.
+ *
+ * The base is never copied or modified, every tenant of a {@link TenantDictionaryPool} reads the same one,
+ * so a tenant costs only the overlay. Lookups consult both tries: a word exists if either trie has it, and
+ * completions of both are merged on the fly into the order a single trie holding all the words would produce,
+ * shorter words first and words of equal length in alphabetical order; a word in both tries is produced once.
+ *
+ * The overlay keeps all of the tenant's words, also those the base has, so a base reload that drops a word
+ * doesn't take it away from tenants that added it themselves.
+ *
+ * The overlay is immutable once built, so a tenant dictionary can be read by any number of threads.
+ *
+ * @author Anton Hrytsyk
+ */
+public final class TenantDictionary {
+
+    /**
+     * Identifier of the tenant.
+     */
+    private final String tenant;
+
+    /**
+     * Supplies the shared base trie, looked up on every query so a reloaded base is picked up.
+     */
+    private final Supplier<AutoCompleteDictionaryTrie> base;
+
+    /**
+     * All custom words of the tenant.
+     */
+    private final AutoCompleteDictionaryTrie overlay;
+
+    /**
+     * Estimated heap size of the overlay, in bytes.
+     */
+    private final long overlayBytes;
+
+    /**
+     * Value of <code> System.nanoTime() </code> when the pool last handed the dictionary out.
+     */
+    private volatile long lastAccess;
+
+
+    /**
+     * Builds the overlay of a tenant.
+     * @param tenant identifier of the tenant.
+     * @param base   supplies the shared base trie.
+     * @param words  custom words of the tenant.
+     */
+    TenantDictionary(String tenant, Supplier<AutoCompleteDictionaryTrie> base, Iterable<String> words) {
+
+        this.tenant = tenant;
+        this.base = base;
+
+        List<String> own = new ArrayList<>();
+        for (String word : words)
+            if (!word.isEmpty()) own.add(word);
+
+        this.overlay = new AutoCompleteDictionaryTrie(own.iterator());
+        overlay.trimToSize();
+        this.overlayBytes = overlay.statistics().getEstimatedBytes();
+        this.lastAccess = System.nanoTime();
+    }
+
+
+    /**
+     * Checks whether the text is a word of the base or of the tenant.
+     * @param text text to check.
+     * @return <code> true </code> if either trie stores the word.
+     */
+    public boolean isWord(String text) {
+        return overlay.isWord(text) || base.get().isWord(text);
+    }
+
+
+    /**
+     * Produces completions from the base and the tenant's words.
+     * @param text             word that needs to be auto-completed.
+     * @param numOfCompletions number of completions that needs to be generated.
+     * @return list with at most the specified number of completions.
+     */
+    public List<String> produceCompletions(String text, int numOfCompletions) {
+        List<String> completions = new ArrayList<>();
+        produceCompletions(text, numOfCompletions, completions::add);
+        return completions;
+    }
+
+
+    /**
+     * Produces completions from the base and the tenant's words and hands them over as they are found.
+     *
+     * The overlay's completions are collected first, there are only a few of them, then they are slotted in
+     * between the base's completions as those stream by.
+     *
+     * @param text             word that needs to be auto-completed.
+     * @param numOfCompletions maximum number of completions that will be passed to the consumer.
+     * @param consumer         receives the completions.
+     * @return number of completions passed to the consumer.
+     */
+    public int produceCompletions(String text, int numOfCompletions, Consumer<String> consumer) {
+
+        if (numOfCompletions <= 0) return 0;
+
+        List<String> own = new ArrayList<>();
+        overlay.produceCompletions(text, numOfCompletions, own::add);
+        if (own.isEmpty()) return base.get().produceCompletions(text, numOfCompletions, consumer);
+
+        // produced[0] counts completions handed over, produced[1] is the next overlay completion.
+        int[] produced = {0, 0};
+        base.get().produceCompletions(text, numOfCompletions, word -> {
+            while (produced[0] < numOfCompletions && produced[1] < own.size()) {
+                String next = own.get(produced[1]);
+                int order = compare(next, word);
+                if (order > 0) break;
+                produced[1]++;
+                // The word is in both tries, the base hands it over.
+                if (order == 0) continue;
+                consumer.accept(next);
+                produced[0]++;
+            }
+            if (produced[0] < numOfCompletions) {
+                consumer.accept(word);
+                produced[0]++;
+            }
+        });
+
+        while (produced[0] < numOfCompletions && produced[1] < own.size()) {
+            consumer.accept(own.get(produced[1]++));
+            produced[0]++;
+        }
+
+        return produced[0];
+    }
+
+
+    /**
+     * Returns the identifier of the tenant.
+     * @return tenant identifier.
+     */
+    public String getTenant() {
+        return tenant;
+    }
+
+
+    /**
+     * Returns the number of the tenant's own words, including those that are also in the base.
+     * @return number of words in the overlay.
+     */
+    public int overlaySize() {
+        return overlay.size();
+    }
+
+
+    /**
+     * Returns the memory the tenant adds to the shared base.
+     * @return estimated heap size of the overlay in bytes.
+     */
+    public long overlayBytes() {
+        return overlayBytes;
+    }
+
+
+    /**
+     * Returns when the dictionary was last handed out by the pool.
+     * @return value of <code> System.nanoTime() </code> at the last access.
+     */
+    long getLastAccess() {
+        return lastAccess;
+    }
+
+
+    /**
+     * Marks the dictionary as used now.
+     */
+    void touch() {
+        lastAccess = System.nanoTime();
+    }
+
+
+    /**
+     * Orders words the way the trie's level-order traversal produces them.
+     * @param a first word.
+     * @param b second word.
+     * @return negative if <code> a </code> comes first, 0 if the words are equal, positive otherwise.
+     */
+    private static int compare(String a, String b) {
+        return (a.length() != b.length()) ? Integer.compare(a.length(), b.length()) : a.compareTo(b);
+    }
+
+
+    /**
+     * String value that represents the dictionary.
+     * @return tenant, overlay size and overlay memory.
+     */
+    @Override
+    public String toString() {
+        return "TenantDictionary{tenant=" + tenant + ", overlayWords=" + overlaySize() + ", overlayBytes=" + overlayBytes + '}';
+    }
+
+}
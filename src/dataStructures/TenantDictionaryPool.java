@@ -0,0 +1,266 @@
+package dataStructures;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Pool of {@link TenantDictionary tenant dictionaries} that share one base trie.
+ *
+ * Each tenant is the base dictionary plus a few custom words, so instead of building a full trie per tenant
+ * the pool keeps a single base and builds only a small overlay for every tenant, loaded on first use with the
+ * loader given to the pool. Memory then grows with the number of custom words, not with the number of tenants.
+ *
+ * At most a fixed number of tenants is kept, the least recently used one is evicted when another one has to be
+ * loaded, and {@link #evictIdle(long, TimeUnit)} drops tenants nobody asked for within a time limit.
+ * An evicted tenant is simply loaded again on its next use.
+ *
+ * The pool is thread-safe. Loading runs outside of the lock, so a slow loader doesn't hold up other tenants;
+ * when two threads load the same tenant at once, the first overlay to finish is kept.
+ *
+ * Usage:
+ * <pre>
+ *     TenantDictionaryPool pool = new TenantDictionaryPool(base, 500, tenant -&gt; customWords(tenant));
+ *     pool.tenant("acme").produceCompletions("hel", 10);
+ * </pre>
+ *
+ * @author Anton Hrytsyk
+ */
+public final class TenantDictionaryPool {
+
+    /**
+     * Supplies the shared base trie.
+     */
+    private final Supplier<AutoCompleteDictionaryTrie> base;
+
+    /**
+     * Most tenants kept at once.
+     */
+    private final int maxTenants;
+
+    /**
+     * Returns the custom words of a tenant.
+     */
+    private final Function<String, ? extends Iterable<String>> loader;
+
+    /**
+     * Loaded tenants, least recently used first.
+     */
+    private final LinkedHashMap<String, TenantDictionary> tenants;
+
+    /**
+     * Lookups served by a loaded tenant, tenants loaded and tenants evicted.
+     */
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+
+    /**
+     * Creates a pool over a base trie that is no longer modified.
+     * @param base       shared base trie.
+     * @param maxTenants most tenants kept at once.
+     * @param loader     returns the custom words of a tenant.
+     */
+    public TenantDictionaryPool(AutoCompleteDictionaryTrie base, int maxTenants,
+                                Function<String, ? extends Iterable<String>> loader) {
+        this(() -> base, maxTenants, loader);
+    }
+
+    /**
+     * Creates a pool over a base that is reloaded in the background.
+     * Overlays hold all custom words of their tenants, so tenants keep them whatever the reloaded base contains.
+     * @param base       reloadable base dictionary.
+     * @param maxTenants most tenants kept at once.
+     * @param loader     returns the custom words of a tenant.
+     */
+    public TenantDictionaryPool(ReloadableDictionary base, int maxTenants,
+                                Function<String, ? extends Iterable<String>> loader) {
+        this(base::current, maxTenants, loader);
+    }
+
+    /**
+     * Creates a pool.
+     *
+     * @throws IllegalArgumentException if any argument is null or the number of tenants isn't positive.
+     *
+     * @param base       supplies the shared base trie.
+     * @param maxTenants most tenants kept at once.
+     * @param loader     returns the custom words of a tenant.
+     */
+    public TenantDictionaryPool(Supplier<AutoCompleteDictionaryTrie> base, int maxTenants,
+                                Function<String, ? extends Iterable<String>> loader) {
+
+        if (base == null || loader == null)
+            throw new IllegalArgumentException("base and loader can't be null");
+        if (maxTenants <= 0)
+            throw new IllegalArgumentException("max tenants has to be positive: " + maxTenants);
+
+        this.base = base;
+        this.maxTenants = maxTenants;
+        this.loader = loader;
+        // Access order turns the map into an LRU list, the eldest entry is the least recently used tenant.
+        this.tenants = new LinkedHashMap<String, TenantDictionary>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TenantDictionary> eldest) {
+                if (size() <= TenantDictionaryPool.this.maxTenants) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+
+    /**
+     * Returns the dictionary of a tenant, loading it if it isn't in the pool.
+     *
+     * @throws IllegalArgumentException if tenant is null.
+     *
+     * @param tenant identifier of the tenant.
+     * @return dictionary of the tenant.
+     */
+    public TenantDictionary tenant(String tenant) {
+
+        if (tenant == null)
+            throw new IllegalArgumentException("tenant can't be null");
+
+        TenantDictionary dictionary;
+        synchronized (tenants) {
+            dictionary = tenants.get(tenant);
+        }
+        if (dictionary != null) {
+            hits.increment();
+            dictionary.touch();
+            return dictionary;
+        }
+
+        TenantDictionary loaded = new TenantDictionary(tenant, base, loader.apply(tenant));
+        synchronized (tenants) {
+            dictionary = tenants.putIfAbsent(tenant, loaded);
+        }
+        if (dictionary != null) {
+            // Another thread loaded the tenant meanwhile.
+            hits.increment();
+            dictionary.touch();
+            return dictionary;
+        }
+
+        loads.increment();
+        return loaded;
+    }
+
+
+    /**
+     * Drops a tenant, e.g. after its custom words changed. It is loaded again on its next use.
+     * @param tenant identifier of the tenant.
+     * @return <code> true </code> if the tenant was in the pool.
+     */
+    public boolean invalidate(String tenant) {
+        synchronized (tenants) {
+            return tenants.remove(tenant) != null;
+        }
+    }
+
+
+    /**
+     * Evicts tenants that weren't used within the given time.
+     * @param maxIdle longest idle time of a tenant that stays in the pool.
+     * @param unit    unit of the idle time.
+     * @return number of evicted tenants.
+     */
+    public int evictIdle(long maxIdle, TimeUnit unit) {
+
+        long now = System.nanoTime(), limit = unit.toNanos(maxIdle);
+        int evicted = 0;
+
+        synchronized (tenants) {
+            // Access times are recorded outside of the lock, so they may be slightly out of LRU order: scan all.
+            Iterator<TenantDictionary> iterator = tenants.values().iterator();
+            while (iterator.hasNext()) {
+                if (now - iterator.next().getLastAccess() > limit) {
+                    iterator.remove();
+                    evicted++;
+                }
+            }
+        }
+
+        evictions.add(evicted);
+        return evicted;
+    }
+
+
+    /**
+     * Returns the number of tenants in the pool.
+     * @return number of loaded tenants.
+     */
+    public int size() {
+        synchronized (tenants) {
+            return tenants.size();
+        }
+    }
+
+
+    /**
+     * Returns the most tenants the pool keeps at once.
+     * @return capacity of the pool.
+     */
+    public int getMaxTenants() {
+        return maxTenants;
+    }
+
+
+    /**
+     * Returns the memory all loaded overlays take, the base isn't included.
+     * @return estimated heap size of the overlays in bytes.
+     */
+    public long overlayBytes() {
+        synchronized (tenants) {
+            long bytes = 0;
+            for (TenantDictionary dictionary : tenants.values())
+                bytes += dictionary.overlayBytes();
+            return bytes;
+        }
+    }
+
+
+    /**
+     * Returns the number of lookups answered by a tenant that was already loaded.
+     * @return number of hits.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of tenants loaded.
+     * @return number of loads.
+     */
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    /**
+     * Returns the number of tenants evicted, because the pool was full or they were idle.
+     * @return number of evictions.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+
+    /**
+     * String value that represents the pool.
+     * @return number of tenants, overlay memory and counters.
+     */
+    @Override
+    public String toString() {
+        return "TenantDictionaryPool{tenants=" + size() + ", maxTenants=" + maxTenants +
+                ", overlayBytes=" + overlayBytes() +
+                ", hits=" + getHits() + ", loads=" + getLoads() + ", evictions=" + getEvictions() + '}';
+    }
+
+}
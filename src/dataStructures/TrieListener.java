@@ -0,0 +1,60 @@
+package dataStructures;
+
+/**
+ * Receives events about operations performed by {@link AutoCompleteDictionaryTrie}.
+ *
+ * Callbacks run synchronously on the thread that performed the operation, so they have to be cheap and thread-safe.
+ * All methods have empty default implementations, so a listener only overrides what it is interested in.
+ *
+ * @author Anton Hrytsyk
+ */
+public interface TrieListener {
+
+    /**
+     * Called after <code> addWord </code>.
+     * @param word  lower-cased word.
+     * @param isNew value returned by <code> addWord </code>.
+     * @param nanos duration of the operation.
+     */
+    default void wordAdded(String word, boolean isNew, long nanos) {
+    }
+
+    /**
+     * Called after <code> removeWord </code>.
+     * @param word    lower-cased word.
+     * @param removed value returned by <code> removeWord </code>.
+     * @param nanos   duration of the operation.
+     */
+    default void wordRemoved(String word, boolean removed, long nanos) {
+    }
+
+    /**
+     * Called after <code> isWord </code>.
+     * @param word         lower-cased word.
+     * @param found        value returned by <code> isWord </code>.
+     * @param nodesVisited number of trie nodes the lookup touched, including the root.
+     * @param nanos        duration of the operation.
+     */
+    default void wordChecked(String word, boolean found, int nodesVisited, long nanos) {
+    }
+
+    /**
+     * Called after <code> produceCompletions </code>.
+     * @param prefix       lower-cased prefix.
+     * @param completions  number of returned completions.
+     * @param nodesVisited number of trie nodes the descent and the traversal touched, including the root.
+     * @param nanos        duration of the operation.
+     */
+    default void completionsProduced(String prefix, int completions, int nodesVisited, long nanos) {
+    }
+
+    /**
+     * Called once a dictionary file was loaded.
+     * @param path  path of the dictionary.
+     * @param words number of words in the trie after loading.
+     * @param nanos duration of the load.
+     */
+    default void dictionaryLoaded(String path, int words, long nanos) {
+    }
+
+}
@@ -0,0 +1,373 @@
+package dataStructures;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Metrics collected from an {@link AutoCompleteDictionaryTrie}: per-operation counters, latency histograms,
+ * nodes visited per completion query and structural statistics of the trie.
+ *
+ * Usage:
+ * <pre>
+ *     TrieMetrics metrics = TrieMetrics.attach(trie);
+ *     metrics.registerMBean("main");    // optional, exposes the metrics over JMX
+ * </pre>
+ * Metrics of a {@link ReloadableDictionary} are attached with {@link #attach(ReloadableDictionary)},
+ * they follow every reload and never hold on to a replaced trie.
+ * Structural statistics walk the whole trie, so they are computed only when requested
+ * and reused until the trie changes.
+ *
+ * @author Anton Hrytsyk
+ */
+public final class TrieMetrics implements TrieListener, TrieMetricsMBean {
+
+    /**
+     * Supplies the trie the structural statistics are collected from.
+     */
+    private final Supplier<AutoCompleteDictionaryTrie> trie;
+
+    /**
+     * Operation counters.
+     */
+    private final LongAdder addWordCalls = new LongAdder();
+    private final LongAdder removeWordCalls = new LongAdder();
+    private final LongAdder isWordCalls = new LongAdder();
+    private final LongAdder isWordHits = new LongAdder();
+    private final LongAdder completionCalls = new LongAdder();
+    private final LongAdder completionHits = new LongAdder();
+
+    /**
+     * Latencies in nanoseconds and nodes visited per completion query.
+     */
+    private final LatencyHistogram isWordLatency = new LatencyHistogram();
+    private final LatencyHistogram completionLatency = new LatencyHistogram();
+    private final LatencyHistogram nodesVisited = new LatencyHistogram();
+
+    /**
+     * Duration of the last dictionary load in nanoseconds.
+     */
+    private volatile long lastLoadNanos;
+
+    /**
+     * Name under which the MBean was registered, null if it wasn't.
+     */
+    private ObjectName objectName;
+
+    /**
+     * Last computed structural statistics, <code> null </code> until requested.
+     */
+    private volatile Snapshot snapshot;
+
+
+    /**
+     * Creates metrics for the trie, they have to be attached as the trie's listener to receive events.
+     * @param trie trie the structural statistics are collected from.
+     */
+    public TrieMetrics(AutoCompleteDictionaryTrie trie) {
+        this(() -> trie);
+    }
+
+    /**
+     * Creates metrics for whichever trie is current, e.g. <code> dictionary::current </code>.
+     * @param trie supplies the trie the structural statistics are collected from.
+     */
+    public TrieMetrics(Supplier<AutoCompleteDictionaryTrie> trie) {
+        this.trie = trie;
+    }
+
+
+    /**
+     * Creates metrics and attaches them to the trie as its listener.
+     * @param trie trie to instrument.
+     * @return attached metrics.
+     */
+    public static TrieMetrics attach(AutoCompleteDictionaryTrie trie) {
+        TrieMetrics metrics = new TrieMetrics(trie);
+        trie.setListener(metrics);
+        return metrics;
+    }
+
+
+    /**
+     * Creates metrics and attaches them as the listener of the dictionary's current trie and of every replacement.
+     * @param dictionary dictionary to instrument.
+     * @return attached metrics.
+     */
+    public static TrieMetrics attach(ReloadableDictionary dictionary) {
+        TrieMetrics metrics = new TrieMetrics(dictionary::current);
+        dictionary.setListener(metrics);
+        return metrics;
+    }
+
+
+    /**
+     * Registers the metrics with the platform MBean server
+     * as <code> dataStructures:type=AutoCompleteDictionaryTrie,name=&lt;name&gt; </code>.
+     * @param name name that distinguishes this trie from others.
+     * @throws JMException if registration fails, e.g. the name is already taken.
+     */
+    public synchronized void registerMBean(String name) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName("dataStructures:type=AutoCompleteDictionaryTrie,name=" + ObjectName.quote(name));
+        server.registerMBean(this, objectName);
+        this.objectName = objectName;
+    }
+
+
+    /**
+     * Removes the MBean from the platform MBean server, if it was registered.
+     * @throws JMException if unregistration fails.
+     */
+    public synchronized void unregisterMBean() throws JMException {
+        if (objectName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            objectName = null;
+        }
+    }
+
+
+    @Override
+    public void wordAdded(String word, boolean isNew, long nanos) {
+        addWordCalls.increment();
+    }
+
+    @Override
+    public void wordRemoved(String word, boolean removed, long nanos) {
+        removeWordCalls.increment();
+    }
+
+    @Override
+    public void wordChecked(String word, boolean found, int visited, long nanos) {
+        isWordCalls.increment();
+        if (found) isWordHits.increment();
+        isWordLatency.record(nanos);
+    }
+
+    @Override
+    public void completionsProduced(String prefix, int completions, int visited, long nanos) {
+        completionCalls.increment();
+        if (completions > 0) completionHits.increment();
+        completionLatency.record(nanos);
+        nodesVisited.record(visited);
+    }
+
+    @Override
+    public void dictionaryLoaded(String path, int words, long nanos) {
+        lastLoadNanos = nanos;
+    }
+
+
+    @Override
+    public long getAddWordCalls() {
+        return addWordCalls.sum();
+    }
+
+    @Override
+    public long getRemoveWordCalls() {
+        return removeWordCalls.sum();
+    }
+
+    @Override
+    public long getIsWordCalls() {
+        return isWordCalls.sum();
+    }
+
+    @Override
+    public double getIsWordHitRatio() {
+        return ratio(isWordHits.sum(), isWordCalls.sum());
+    }
+
+    @Override
+    public double getIsWordLatencyP50Micros() {
+        return isWordLatency.percentile(50) / 1e3;
+    }
+
+    @Override
+    public double getIsWordLatencyP99Micros() {
+        return isWordLatency.percentile(99) / 1e3;
+    }
+
+    @Override
+    public double getIsWordLatencyP999Micros() {
+        return isWordLatency.percentile(99.9) / 1e3;
+    }
+
+    @Override
+    public long getCompletionCalls() {
+        return completionCalls.sum();
+    }
+
+    @Override
+    public double getCompletionHitRatio() {
+        return ratio(completionHits.sum(), completionCalls.sum());
+    }
+
+    @Override
+    public double getCompletionLatencyP50Micros() {
+        return completionLatency.percentile(50) / 1e3;
+    }
+
+    @Override
+    public double getCompletionLatencyP99Micros() {
+        return completionLatency.percentile(99) / 1e3;
+    }
+
+    @Override
+    public double getCompletionLatencyP999Micros() {
+        return completionLatency.percentile(99.9) / 1e3;
+    }
+
+    @Override
+    public double getNodesVisitedPerCompletionMean() {
+        return nodesVisited.mean();
+    }
+
+    @Override
+    public long getNodesVisitedPerCompletionP99() {
+        return nodesVisited.percentile(99);
+    }
+
+    @Override
+    public double getLastLoadMillis() {
+        return lastLoadNanos / 1e6;
+    }
+
+    @Override
+    public int getWordCount() {
+        return trie.get().size();
+    }
+
+    @Override
+    public long getNodeCount() {
+        return statistics().getNodes();
+    }
+
+    @Override
+    public int getMaxDepth() {
+        return statistics().getMaxDepth();
+    }
+
+    @Override
+    public long[] getNodesPerDepth() {
+        return statistics().getNodesPerDepth();
+    }
+
+    @Override
+    public long getEstimatedHeapBytes() {
+        return statistics().getEstimatedBytes();
+    }
+
+    @Override
+    public long getFilterBytes() {
+        DictionaryFilter filter = trie.get().getFilter();
+        return (filter == null) ? 0 : filter.sizeInBytes();
+    }
+
+    @Override
+    public double getFilterRejectRatio() {
+        DictionaryFilter filter = trie.get().getFilter();
+        return (filter == null) ? 0 : ratio(filter.getRejects(), filter.getChecks());
+    }
+
+    @Override
+    public double getFilterFalsePositiveRatio() {
+        DictionaryFilter filter = trie.get().getFilter();
+        return (filter == null) ? 0 : filter.getObservedFalsePositiveRate();
+    }
+
+    /**
+     * Forgets all counters and histograms, including the counters of the trie's filter.
+     * Structural statistics are not affected.
+     */
+    @Override
+    public void reset() {
+        addWordCalls.reset();
+        removeWordCalls.reset();
+        isWordCalls.reset();
+        isWordHits.reset();
+        completionCalls.reset();
+        completionHits.reset();
+        isWordLatency.reset();
+        completionLatency.reset();
+        nodesVisited.reset();
+        DictionaryFilter filter = trie.get().getFilter();
+        if (filter != null) filter.resetCounters();
+    }
+
+
+    /**
+     * Returns latency histogram of <code> isWord </code> calls, in nanoseconds.
+     * @return live histogram.
+     */
+    public LatencyHistogram isWordLatency() {
+        return isWordLatency;
+    }
+
+    /**
+     * Returns latency histogram of <code> produceCompletions </code> calls, in nanoseconds.
+     * @return live histogram.
+     */
+    public LatencyHistogram completionLatency() {
+        return completionLatency;
+    }
+
+    /**
+     * Returns histogram of nodes visited per <code> produceCompletions </code> call.
+     * @return live histogram.
+     */
+    public LatencyHistogram nodesVisited() {
+        return nodesVisited;
+    }
+
+
+    /**
+     * Returns statistics of the trie, walking it only if it changed since the last walk.
+     * @return current structural statistics.
+     */
+    private TrieStatistics statistics() {
+
+        AutoCompleteDictionaryTrie trie = this.trie.get();
+        Snapshot snapshot = this.snapshot;
+        int modCount = trie.modCount();
+        if (snapshot == null || snapshot.trie.get() != trie || snapshot.modCount != modCount) {
+            snapshot = new Snapshot(trie, modCount, trie.statistics());
+            this.snapshot = snapshot;
+        }
+        return snapshot.statistics;
+    }
+
+
+    /**
+     * Divides two counters.
+     * @param part  numerator.
+     * @param total denominator.
+     * @return ratio, 0 if total is 0.
+     */
+    private static double ratio(long part, long total) {
+        return (total == 0) ? 0 : (double) part / total;
+    }
+
+
+    /**
+     * Statistics together with the trie and the modification count they were computed for.
+     * The trie is weakly referenced, so a snapshot doesn't keep a replaced trie alive.
+     */
+    private static final class Snapshot {
+
+        final WeakReference<AutoCompleteDictionaryTrie> trie;
+        final int modCount;
+        final TrieStatistics statistics;
+
+        Snapshot(AutoCompleteDictionaryTrie trie, int modCount, TrieStatistics statistics) {
+            this.trie = new WeakReference<>(trie);
+            this.modCount = modCount;
+            this.statistics = statistics;
+        }
+    }
+
+}
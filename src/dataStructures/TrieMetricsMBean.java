@@ -0,0 +1,59 @@
+package dataStructures;
+
+/**
+ * JMX management interface of {@link TrieMetrics}.
+ * Latencies are reported in microseconds.
+ *
+ * @author Anton Hrytsyk
+ */
+public interface TrieMetricsMBean {
+
+    long getAddWordCalls();
+
+    long getRemoveWordCalls();
+
+    long getIsWordCalls();
+
+    double getIsWordHitRatio();
+
+    double getIsWordLatencyP50Micros();
+
+    double getIsWordLatencyP99Micros();
+
+    double getIsWordLatencyP999Micros();
+
+    long getCompletionCalls();
+
+    double getCompletionHitRatio();
+
+    double getCompletionLatencyP50Micros();
+
+    double getCompletionLatencyP99Micros();
+
+    double getCompletionLatencyP999Micros();
+
+    double getNodesVisitedPerCompletionMean();
+
+    long getNodesVisitedPerCompletionP99();
+
+    double getLastLoadMillis();
+
+    int getWordCount();
+
+    long getNodeCount();
+
+    int getMaxDepth();
+
+    long[] getNodesPerDepth();
+
+    long getEstimatedHeapBytes();
+
+    long getFilterBytes();
+
+    double getFilterRejectRatio();
+
+    double getFilterFalsePositiveRatio();
+
+    void reset();
+
+}
@@ -0,0 +1,143 @@
+package dataStructures;
+
+import java.util.Arrays;
+
+/**
+ * Structural statistics of an {@link AutoCompleteDictionaryTrie}, collected by {@link AutoCompleteDictionaryTrie#statistics()}.
+ *
+ * Heap size is an estimate for a 64-bit JVM with compressed references (12 byte headers, 4 byte references,
+ * 8 byte alignment) and Latin-1 compact strings, it doesn't account for sharing between tries.
+ *
+ * @author Anton Hrytsyk
+ */
+public final class TrieStatistics {
+
+    /**
+     * Number of words in the trie.
+     */
+    private final int words;
+
+    /**
+     * Number of nodes, including the root.
+     */
+    private long nodes;
+
+    /**
+     * Number of nodes at each depth, the root is at depth 0.
+     */
+    private long[] nodesPerDepth = new long[16];
+
+    /**
+     * Deepest level that has nodes.
+     */
+    private int maxDepth;
+
+    /**
+     * Estimated number of bytes the nodes take on the heap.
+     */
+    private long estimatedBytes;
+
+
+    /**
+     * Creates empty statistics.
+     * @param words number of words in the trie.
+     */
+    TrieStatistics(int words) {
+        this.words = words;
+    }
+
+
+    /**
+     * Accounts for a single node.
+     * @param depth         depth of the node.
+     * @param textLength    length of the text stored in the node.
+     * @param children      number of children.
+     * @param childCapacity capacity of the node's child map.
+     */
+    void addNode(int depth, int textLength, int children, int childCapacity) {
+
+        nodes++;
+        if (depth >= nodesPerDepth.length)
+            nodesPerDepth = Arrays.copyOf(nodesPerDepth, Math.max(depth + 1, nodesPerDepth.length * 2));
+        nodesPerDepth[depth]++;
+        maxDepth = Math.max(maxDepth, depth);
+
+        long bytes = 24;                                     // Node: header, two references, boolean
+        bytes += 24;                                         // CharToObjectMap: header, two references, int
+        if (childCapacity > 0) {
+            bytes += align(16 + 2L * childCapacity);         // char[] keys
+            bytes += align(16 + 4L * childCapacity);         // Object[] values
+        }
+        bytes += 24 + align(16 + textLength);                // String and its byte[]
+
+        estimatedBytes += bytes;
+    }
+
+
+    /**
+     * Returns the number of words in the trie.
+     * @return number of words.
+     */
+    public int getWords() {
+        return words;
+    }
+
+    /**
+     * Returns the number of nodes, including the root.
+     * @return number of nodes.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the depth of the deepest node, which is the length of the longest word.
+     * @return maximum depth.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Returns the number of nodes at each depth.
+     * @return array indexed by depth, the root is at depth 0.
+     */
+    public long[] getNodesPerDepth() {
+        return Arrays.copyOf(nodesPerDepth, maxDepth + 1);
+    }
+
+    /**
+     * Returns the estimated heap size of the trie.
+     * @return estimated number of bytes.
+     */
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+
+    /**
+     * String value that represents the statistics.
+     * @return summary of all statistics.
+     */
+    @Override
+    public String toString() {
+        return "TrieStatistics{" +
+                "words=" + words +
+                ", nodes=" + nodes +
+                ", maxDepth=" + maxDepth +
+                ", estimatedBytes=" + estimatedBytes +
+                ", nodesPerDepth=" + Arrays.toString(getNodesPerDepth()) +
+                '}';
+    }
+
+
+    /**
+     * Rounds object size up to the 8 byte alignment.
+     * @param bytes unaligned size.
+     * @return aligned size.
+     */
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+}
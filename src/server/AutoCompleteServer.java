@@ -0,0 +1,484 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import dataStructures.AutoCompleteDictionaryTrie;
+import dataStructures.ReloadableDictionary;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+
+/**
+ * Embedded HTTP front end of {@link AutoCompleteDictionaryTrie}, built on the JDK's <code> com.sun.net.httpserver </code>.
+ *
+ * Endpoints, both answer <code> GET </code> with JSON:
+ * <pre>
+ *     /complete?q=hel&amp;k=10    ["held","hell","helm",...]
+ *     /check?w=hello            {"word":"hello","isWord":true}
+ * </pre>
+ * Completions are written into the response buffer straight from the trie traversal, no list is built in between.
+ * Responses carry their length, so HTTP/1.1 clients keep the connection alive.
+ *
+ * Requests are handled on virtual threads when the runtime has them (Java 21+).
+ * On older runtimes a fixed pool of platform threads is used instead - handlers never block, so a pool of
+ * about the number of cores is enough there.
+ * The trie is only read, so it must not be modified while the server is running.
+ * To pick up dictionary changes, serve a {@link ReloadableDictionary} instead: every request then runs on
+ * whichever trie is current, without waiting for a rebuild.
+ *
+ * {@link #main(String[])} turns on <code> sun.net.httpserver.nodelay </code>: without it every small response waits
+ * about 40 ms for the client's delayed ACK. The property is JVM-wide and read once, so applications that embed
+ * the server should set it themselves, e.g. with <code> -Dsun.net.httpserver.nodelay=true </code>,
+ * before the first <code> HttpServer.create </code>.
+ *
+ * Usage:
+ * <pre>
+ *     java server.AutoCompleteServer [--port=N] [--threads=N] [--dictionary=PATH] [--watch=true]
+ * </pre>
+ *
+ * @author Anton Hrytsyk
+ */
+public final class AutoCompleteServer {
+
+    /**
+     * Number of completions returned when <code> k </code> isn't given.
+     */
+    public static final int DEFAULT_COMPLETIONS = 10;
+
+    /**
+     * Upper bound on <code> k </code>, so a single request can't make the server walk the whole trie.
+     */
+    public static final int MAX_COMPLETIONS = 1000;
+
+    /**
+     * Supplies the trie that answers a query, read once per request.
+     */
+    private final Supplier<AutoCompleteDictionaryTrie> trie;
+
+    /**
+     * Underlying server.
+     */
+    private final HttpServer server;
+
+    /**
+     * Runs the handlers.
+     */
+    private final ExecutorService executor;
+
+
+    /**
+     * Creates a server bound to the port, it doesn't accept requests until started.
+     * @param trie    trie that answers the queries.
+     * @param port    port to listen on, 0 picks a free one.
+     * @param threads size of the handler pool when virtual threads aren't available.
+     * @throws IOException if the port can't be bound.
+     */
+    public AutoCompleteServer(AutoCompleteDictionaryTrie trie, int port, int threads) throws IOException {
+        this(fixed(trie), port, threads);
+    }
+
+    /**
+     * Creates a server that answers from the current trie of a reloadable dictionary.
+     * @param dictionary dictionary that answers the queries.
+     * @param port       port to listen on, 0 picks a free one.
+     * @param threads    size of the handler pool when virtual threads aren't available.
+     * @throws IOException if the port can't be bound.
+     */
+    public AutoCompleteServer(ReloadableDictionary dictionary, int port, int threads) throws IOException {
+        this(dictionary == null ? null : (Supplier<AutoCompleteDictionaryTrie>) dictionary::current, port, threads);
+    }
+
+    /**
+     * Creates a server bound to the port.
+     * @param trie    supplies the trie that answers a query.
+     * @param port    port to listen on, 0 picks a free one.
+     * @param threads size of the handler pool when virtual threads aren't available.
+     * @throws IOException if the port can't be bound.
+     */
+    private AutoCompleteServer(Supplier<AutoCompleteDictionaryTrie> trie, int port, int threads) throws IOException {
+
+        if (trie == null)
+            throw new IllegalArgumentException("trie can't be null");
+
+        this.trie = trie;
+        this.executor = newExecutor(threads);
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+
+        server.createContext("/complete", new CompleteHandler());
+        server.createContext("/check", new CheckHandler());
+        server.setExecutor(executor);
+    }
+
+
+    public static void main(String[] args) throws IOException {
+
+        // The JDK server writes headers and body separately, with Nagle's algorithm on the body then waits
+        // for the client's delayed ACK, which adds about 40 ms to every small response.
+        // The property is read when the first server is created, so it has to be set before that.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null)
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+
+        int port = 8080;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String dictionary = "src/data/dictionary.txt";
+        boolean watch = false;
+
+        for (String arg : args) {
+
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0)
+                throw new IllegalArgumentException("expected --name=value, got: " + arg);
+
+            String name = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+
+            switch (name) {
+                case "port":       port = Integer.parseInt(value); break;
+                case "threads":    threads = Integer.parseInt(value); break;
+                case "dictionary": dictionary = value; break;
+                case "watch":      watch = Boolean.parseBoolean(value); break;
+                default: throw new IllegalArgumentException("unknown option: " + name);
+            }
+        }
+
+        AutoCompleteServer server;
+        int words;
+
+        if (watch) {
+            ReloadableDictionary reloadable = new ReloadableDictionary(Paths.get(dictionary));
+            reloadable.startWatching();
+            server = new AutoCompleteServer(reloadable, port, threads);
+            words = reloadable.getWordCount();
+        }
+        else {
+            AutoCompleteDictionaryTrie trie = new AutoCompleteDictionaryTrie(dictionary);
+            server = new AutoCompleteServer(trie, port, threads);
+            words = trie.size();
+        }
+
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(1)));
+
+        System.out.printf("Serving %d words on http://localhost:%d/ (%s)%n",
+                words, server.getPort(), server.usesVirtualThreads() ? "virtual threads" : threads + " threads");
+    }
+
+
+    /**
+     * Starts accepting requests in a background thread.
+     */
+    public void start() {
+        server.start();
+    }
+
+
+    /**
+     * Stops accepting requests, waits for running exchanges to finish and shuts the handlers down.
+     * @param delaySeconds maximum time to wait for running exchanges.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+
+    /**
+     * Returns the port the server listens on.
+     * @return bound port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+
+    /**
+     * Checks whether requests run on virtual threads.
+     * @return <code> true </code> if the runtime supports virtual threads.
+     */
+    public boolean usesVirtualThreads() {
+        return !(executor instanceof ThreadPoolExecutor);
+    }
+
+
+    /**
+     * Wraps a fixed trie into a supplier.
+     * @param trie trie that answers all queries, may be <code> null </code>.
+     * @return supplier of the trie, <code> null </code> if the trie is.
+     */
+    private static Supplier<AutoCompleteDictionaryTrie> fixed(AutoCompleteDictionaryTrie trie) {
+        return (trie == null) ? null : () -> trie;
+    }
+
+
+    /**
+     * Creates a virtual-thread-per-task executor when the runtime has one, a fixed pool otherwise.
+     * Looked up reflectively, so the sources still compile for Java 17.
+     * @param threads size of the fallback pool.
+     * @return executor for the handlers.
+     */
+    private static ExecutorService newExecutor(int threads) {
+
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+                Thread thread = new Thread(runnable, "autocomplete-http");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+
+    /**
+     * Handles <code> /complete?q=&amp;k= </code>.
+     */
+    private final class CompleteHandler implements HttpHandler {
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+
+            if (!checkMethod(exchange)) return;
+
+            String query = exchange.getRequestURI().getRawQuery();
+            String prefix = parameter(query, "q");
+            String k = parameter(query, "k");
+
+            if (prefix == null) {
+                sendError(exchange, 400, "missing parameter q");
+                return;
+            }
+
+            int completions;
+            try {
+                completions = (k == null) ? DEFAULT_COMPLETIONS : Integer.parseInt(k);
+            } catch (NumberFormatException e) {
+                completions = -1;
+            }
+            if (completions < 1 || completions > MAX_COMPLETIONS) {
+                sendError(exchange, 400, "k has to be between 1 and " + MAX_COMPLETIONS);
+                return;
+            }
+
+            JsonBuffer body = new JsonBuffer();
+            body.append('[');
+            trie.get().produceCompletions(prefix, completions, word -> {
+                if (body.length() > 1) body.append(',');
+                body.appendString(word);
+            });
+            body.append(']');
+
+            send(exchange, 200, body);
+        }
+    }
+
+
+    /**
+     * Handles <code> /check?w= </code>.
+     */
+    private final class CheckHandler implements HttpHandler {
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+
+            if (!checkMethod(exchange)) return;
+
+            String word = parameter(exchange.getRequestURI().getRawQuery(), "w");
+            if (word == null) {
+                sendError(exchange, 400, "missing parameter w");
+                return;
+            }
+
+            JsonBuffer body = new JsonBuffer();
+            body.appendAscii("{\"word\":");
+            body.appendString(word);
+            body.appendAscii(trie.get().isWord(word) ? ",\"isWord\":true}" : ",\"isWord\":false}");
+
+            send(exchange, 200, body);
+        }
+    }
+
+
+    /**
+     * Rejects everything except <code> GET </code> and <code> HEAD </code>.
+     * @param exchange current exchange.
+     * @return <code> true </code> if the request may be handled.
+     * @throws IOException if sending the error fails.
+     */
+    private static boolean checkMethod(HttpExchange exchange) throws IOException {
+
+        String method = exchange.getRequestMethod();
+        if (method.equals("GET") || method.equals("HEAD")) return true;
+
+        exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+        sendError(exchange, 405, "method not allowed");
+        return false;
+    }
+
+
+    /**
+     * Finds a parameter in the raw query string and decodes it.
+     * @param query raw query, may be <code> null </code>.
+     * @param name  name of the parameter.
+     * @return decoded value of the first occurrence, <code> null </code> if the parameter is absent.
+     */
+    static String parameter(String query, String name) {
+
+        if (query == null) return null;
+
+        int start = 0;
+        while (start <= query.length()) {
+
+            int end = query.indexOf('&', start);
+            if (end < 0) end = query.length();
+
+            int separator = query.indexOf('=', start);
+            boolean hasValue = separator >= 0 && separator < end;
+            int nameEnd = hasValue ? separator : end;
+
+            if (nameEnd - start == name.length() && query.startsWith(name, start)) {
+                String value = hasValue ? query.substring(separator + 1, end) : "";
+                try {
+                    return URLDecoder.decode(value, StandardCharsets.UTF_8);
+                } catch (IllegalArgumentException e) {
+                    return value;
+                }
+            }
+
+            start = end + 1;
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Sends an error as <code> {"error":"..."} </code>.
+     * @param exchange current exchange.
+     * @param status   HTTP status code.
+     * @param message  error message.
+     * @throws IOException if sending fails.
+     */
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        JsonBuffer body = new JsonBuffer();
+        body.appendAscii("{\"error\":");
+        body.appendString(message);
+        body.append('}');
+        send(exchange, status, body);
+    }
+
+
+    /**
+     * Sends a JSON response with a known length, which keeps the connection reusable.
+     * @param exchange current exchange.
+     * @param status   HTTP status code.
+     * @param body     response body.
+     * @throws IOException if sending fails.
+     */
+    private static void send(HttpExchange exchange, int status, JsonBuffer body) throws IOException {
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+
+        boolean head = exchange.getRequestMethod().equals("HEAD");
+        exchange.sendResponseHeaders(status, head ? -1 : body.length());
+
+        try (OutputStream out = exchange.getResponseBody()) {
+            if (!head) out.write(body.bytes, 0, body.length());
+        }
+    }
+
+
+    /**
+     * Growable byte buffer that encodes JSON as UTF-8 directly, without intermediate strings.
+     */
+    static final class JsonBuffer {
+
+        byte[] bytes = new byte[256];
+        int length;
+
+        int length() {
+            return length;
+        }
+
+        void append(char c) {
+            ensureCapacity(1);
+            bytes[length++] = (byte) c;
+        }
+
+        void appendAscii(String s) {
+            ensureCapacity(s.length());
+            for (int i = 0; i < s.length(); i++)
+                bytes[length++] = (byte) s.charAt(i);
+        }
+
+        /**
+         * Appends a quoted and escaped JSON string.
+         * @param s string to append.
+         */
+        void appendString(String s) {
+
+            // Worst case is 6 bytes per char for \\u escapes, plus the quotes.
+            ensureCapacity(6 * s.length() + 2);
+            bytes[length++] = '"';
+
+            for (int i = 0; i < s.length(); i++) {
+
+                char c = s.charAt(i);
+
+                if (c == '"' || c == '\\') {
+                    bytes[length++] = '\\';
+                    bytes[length++] = (byte) c;
+                }
+                else if (c < 0x20) {
+                    bytes[length++] = '\\';
+                    bytes[length++] = 'u';
+                    bytes[length++] = '0';
+                    bytes[length++] = '0';
+                    bytes[length++] = (byte) Character.forDigit(c >> 4, 16);
+                    bytes[length++] = (byte) Character.forDigit(c & 0xF, 16);
+                }
+                else if (c < 0x80) {
+                    bytes[length++] = (byte) c;
+                }
+                else if (c < 0x800) {
+                    bytes[length++] = (byte) (0xC0 | c >> 6);
+                    bytes[length++] = (byte) (0x80 | c & 0x3F);
+                }
+                else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, s.charAt(++i));
+                    bytes[length++] = (byte) (0xF0 | cp >> 18);
+                    bytes[length++] = (byte) (0x80 | cp >> 12 & 0x3F);
+                    bytes[length++] = (byte) (0x80 | cp >> 6 & 0x3F);
+                    bytes[length++] = (byte) (0x80 | cp & 0x3F);
+                }
+                else {
+                    // Lone surrogates are replaced with U+FFFD, like String.getBytes does.
+                    if (Character.isSurrogate(c)) c = '\uFFFD';
+                    bytes[length++] = (byte) (0xE0 | c >> 12);
+                    bytes[length++] = (byte) (0x80 | c >> 6 & 0x3F);
+                    bytes[length++] = (byte) (0x80 | c & 0x3F);
+                }
+            }
+
+            bytes[length++] = '"';
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra > bytes.length)
+                bytes = Arrays.copyOf(bytes, Math.max(length + extra, bytes.length * 2));
+        }
+    }
+
+}